@@ -3,9 +3,11 @@ package com.demo.awsstorage;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = {"com.demo"})
+@EnableScheduling
 public class MainApp {
 
     public static void main(String[] args) {
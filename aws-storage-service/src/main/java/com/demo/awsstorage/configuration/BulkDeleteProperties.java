@@ -0,0 +1,23 @@
+package com.demo.awsstorage.configuration;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@ConfigurationProperties(prefix = "bulk-delete")
+@Component
+public class BulkDeleteProperties {
+
+    /**
+     * Delay between two runs of the worker removing the content of deleted files.
+     */
+    private Duration interval = Duration.ofSeconds(10);
+
+    /**
+     * Number of deleted files whose content is removed together, the objects are removed with
+     * concurrent requests of up to 1000 keys.
+     */
+    private int batchSize = 10000;
+}
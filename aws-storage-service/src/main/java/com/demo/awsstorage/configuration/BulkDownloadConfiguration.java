@@ -0,0 +1,38 @@
+package com.demo.awsstorage.configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+@Configuration
+@RequiredArgsConstructor
+public class BulkDownloadConfiguration {
+
+    private static final String THREAD_NAME_PREFIX = "bulk-download-";
+
+    private final BulkDownloadProperties properties;
+
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService bulkDownloadExecutor() {
+        return Executors.newFixedThreadPool(properties.getExecutorThreads(),
+            new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+    }
+
+    /**
+     * Prefetches on virtual threads when {@code spring.threads.virtual.enabled} is set, the
+     * prefetch concurrency per request is still bounded by {@code prefetchConcurrency}.
+     */
+    @Bean(name = "bulkDownloadExecutor", destroyMethod = "shutdownNow")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualBulkDownloadExecutor() {
+        return Executors.newCachedThreadPool(
+            new VirtualThreadTaskExecutor(THREAD_NAME_PREFIX).getVirtualThreadFactory());
+    }
+}
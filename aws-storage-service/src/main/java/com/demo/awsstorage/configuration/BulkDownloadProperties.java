@@ -0,0 +1,33 @@
+package com.demo.awsstorage.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "bulk-download")
+@Component
+public class BulkDownloadProperties {
+
+    /**
+     * Number of objects fetched ahead of the zip entry that is currently being written.
+     */
+    private int prefetchConcurrency = 4;
+
+    /**
+     * Max amount of prefetched object content held in memory per request. Objects which don't
+     * fit into the remaining budget are streamed from the storage when their entry is written.
+     */
+    private DataSize memoryBudget = DataSize.ofMegabytes(64);
+
+    /**
+     * Size of the buffer between the zip stream and the response.
+     */
+    private DataSize bufferSize = DataSize.ofKilobytes(64);
+
+    /**
+     * Threads shared by all bulk download requests to prefetch objects.
+     */
+    private int executorThreads = 32;
+}
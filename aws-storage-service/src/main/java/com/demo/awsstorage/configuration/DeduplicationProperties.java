@@ -0,0 +1,17 @@
+package com.demo.awsstorage.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@ConfigurationProperties(prefix = "deduplication")
+@Component
+public class DeduplicationProperties {
+
+    /**
+     * When enabled, uploads whose SHA-256 matches already stored content reuse the stored object
+     * instead of keeping a new copy.
+     */
+    private boolean enabled;
+}
@@ -0,0 +1,30 @@
+package com.demo.awsstorage.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "download")
+@Component
+public class DownloadProperties {
+
+    /**
+     * Lets the servlet container send content staged in the local object cache with sendfile
+     * when it supports it.
+     */
+    private boolean sendfileEnabled = true;
+
+    /**
+     * Size of the pooled buffer used to relay content from the storage to the response.
+     */
+    private DataSize relayBufferSize = DataSize.ofKilobytes(256);
+
+    /**
+     * Most separate ranges served for one request after overlapping and adjacent ones are
+     * coalesced, each of them is a request to the storage. More are answered with the whole
+     * content.
+     */
+    private int maxRanges = 16;
+}
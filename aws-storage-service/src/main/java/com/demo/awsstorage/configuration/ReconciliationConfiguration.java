@@ -0,0 +1,25 @@
+package com.demo.awsstorage.configuration;
+
+import com.demo.awsstorage.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Schedules the reconciliation when {@code reconciliation.enabled} is set. Runs of several
+ * instances may overlap, every fix they apply is idempotent.
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "reconciliation", name = "enabled", havingValue = "true")
+public class ReconciliationConfiguration {
+
+    private final ReconciliationService reconciliationService;
+
+    @Scheduled(initialDelayString = "${reconciliation.interval}",
+        fixedDelayString = "${reconciliation.interval}")
+    public void reconcile() {
+        reconciliationService.reconcile();
+    }
+}
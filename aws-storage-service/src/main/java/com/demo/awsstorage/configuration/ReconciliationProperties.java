@@ -0,0 +1,50 @@
+package com.demo.awsstorage.configuration;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@ConfigurationProperties(prefix = "reconciliation")
+@Component
+public class ReconciliationProperties {
+
+    /**
+     * Runs the reconciliation of the bucket and the file metadata periodically.
+     */
+    private boolean enabled;
+
+    /**
+     * When disabled the job only reports orphan objects, dangling metadata and stale uploads
+     * without removing them.
+     */
+    private boolean fix;
+
+    /**
+     * Delay between the end of a run and the start of the next one.
+     */
+    private Duration interval = Duration.ofHours(6);
+
+    /**
+     * Number of metadata rows read per keyset page, and of orphan objects removed per request.
+     */
+    private int pageSize = 1000;
+
+    /**
+     * Objects and metadata changed more recently than this are skipped, they may belong to an
+     * upload which is still in progress.
+     */
+    private Duration gracePeriod = Duration.ofHours(1);
+
+    /**
+     * PENDING files created longer ago than this are treated as failed uploads.
+     */
+    private Duration pendingTimeout = Duration.ofHours(24);
+
+    /**
+     * Incomplete multipart uploads initiated longer ago than this and not tracked by a file are
+     * aborted.
+     */
+    private Duration multipartUploadTimeout = Duration.ofHours(24);
+}
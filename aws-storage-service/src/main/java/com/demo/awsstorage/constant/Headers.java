@@ -0,0 +1,13 @@
+package com.demo.awsstorage.constant;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class Headers {
+
+    public static final String FILE_ID = "X-File-Id";
+    public static final String FILE_NAME = "X-File-Name";
+    public static final String SOURCE_ID = "X-Source-Id";
+    public static final String STORAGE_ID = "X-Storage-Id";
+    public static final String FILE_HASH = "X-File-Hash";
+}
@@ -10,6 +10,15 @@ public class Logging {
     public static final String CONTENT_TYPE = "contentType";
     public static final String SIZE_IN_BYTES = "sizeInBytes";
     public static final String UPLOAD_STATUS = "uploadStatus";
+    public static final String PART_NUMBER = "partNumber";
+    public static final String OFFSET = "offset";
+    public static final String STORAGE_ID = "storageId";
+    public static final String OBJECT_NAME = "objectName";
+    public static final String UPLOAD_ID = "uploadId";
+    public static final String LAST_MODIFIED = "lastModified";
+    public static final String FILE_COUNT = "fileCount";
+    public static final String FAILED_OBJECT_COUNT = "failedObjectCount";
+    public static final String COPIED_COUNT = "copiedCount";
     public static final String TIME_TAKEN_IN_MILLI_SECONDS = "timeTakenInMilliSeconds";
 
 }
@@ -0,0 +1,94 @@
+package com.demo.awsstorage.controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+/**
+ * Resolves the Range header of a download against the current object. Overlapping and adjacent
+ * ranges are coalesced, because every range served costs a request to the storage, and a header
+ * asking for more than {@code maxRanges} separate ranges is answered with the whole content.
+ */
+final class ByteRanges {
+
+    private ByteRanges() {
+    }
+
+    /**
+     * @return the ranges to serve in ascending order, an empty list to serve the whole content or
+     * an empty optional if none of the requested ranges can be satisfied
+     */
+    static Optional<List<ByteRange>> resolve(HttpHeaders requestHeaders, String etag,
+        long length, int maxRanges) {
+        if (!isRangeApplicable(requestHeaders, etag)) {
+            return Optional.of(List.of());
+        }
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = requestHeaders.getRange();
+        } catch (IllegalArgumentException ex) {
+            // a Range header which can't be parsed is ignored
+            return Optional.of(List.of());
+        }
+        if (httpRanges.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        var ranges = new ArrayList<ByteRange>();
+        for (var httpRange : httpRanges) {
+            // ranges starting beyond the end are dropped, the request fails only if none is left
+            toByteRange(httpRange, length).ifPresent(ranges::add);
+        }
+        if (ranges.isEmpty()) {
+            return Optional.empty();
+        }
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        var coalesced = new ArrayList<ByteRange>();
+        for (var range : ranges) {
+            var last = coalesced.isEmpty() ? null : coalesced.get(coalesced.size() - 1);
+            if (last != null && range.start() <= last.end() + 1) {
+                coalesced.set(coalesced.size() - 1,
+                    new ByteRange(last.start(), Math.max(last.end(), range.end())));
+            } else {
+                coalesced.add(range);
+            }
+        }
+        return Optional.of(coalesced.size() > maxRanges ? List.of() : coalesced);
+    }
+
+    static String quoteETag(String etag) {
+        return etag.startsWith("\"") ? etag : "\"" + etag + "\"";
+    }
+
+    private static boolean isRangeApplicable(HttpHeaders requestHeaders, String etag) {
+        var ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        // ranges are served only for an unchanged object. A date validator is treated as stale
+        return ifRange == null || ifRange.equals(quoteETag(etag));
+    }
+
+    private static Optional<ByteRange> toByteRange(HttpRange httpRange, long length) {
+        long start;
+        long end;
+        try {
+            start = httpRange.getRangeStart(length);
+            end = httpRange.getRangeEnd(length);
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        return start <= end ? Optional.of(new ByteRange(start, end)) : Optional.empty();
+    }
+
+    record ByteRange(long start, long end) {
+
+        long length() {
+            return end - start + 1;
+        }
+
+        String contentRange(long objectLength) {
+            return "bytes " + start + "-" + end + "/" + objectLength;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.demo.awsstorage.controller;
 
+import com.demo.awsstorage.configuration.DownloadProperties;
+import com.demo.awsstorage.constant.Headers;
+import com.demo.awsstorage.dto.BulkDeleteRequestDto;
+import com.demo.awsstorage.dto.BulkDeleteResponse;
+import com.demo.awsstorage.dto.BulkDownloadRequestDto;
 import com.demo.awsstorage.dto.FileMetadataDto;
 import com.demo.awsstorage.dto.FileUploadResponse;
 import com.demo.awsstorage.policy.InsufficientBytesInternalErrorRetryPolicy;
+import com.demo.awsstorage.service.ContentSender;
 import com.demo.awsstorage.service.FileService;
 import com.demo.filestoresdk.configutation.MinioProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -13,19 +19,39 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import javax.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @Validated
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @Tag(name = "File controller", description = "Provides operations allowed to upload/download files to/from S3/minio bucket")
 @RequestMapping(path = {"/v1/files"}, produces = {"application/json"})
 public class FileController {
@@ -33,6 +59,8 @@ public class FileController {
     private final FileService fileService;
     private final ObjectMapper objectMapper;
     private final MinioProperties minioProperties;
+    private final ContentSender contentSender;
+    private final DownloadProperties downloadProperties;
 
     @Operation(summary = "Endpoint allows to upload content to S3 bucket", responses = {
         @ApiResponse(responseCode = "200", description = "OK", content = {
@@ -69,15 +97,203 @@ public class FileController {
         return ResponseEntity.ok(new FileUploadResponse(uploadedFileId[0]));
     }
 
+    @Operation(summary = "Endpoint allows to create a file from already stored content with the same SHA-256, so the upload can be skipped", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = FileUploadResponse.class))}),
+        @ApiResponse(responseCode = "400", description = "Hash is missing or deduplication is disabled"),
+        @ApiResponse(responseCode = "404", description = "No content stored for the hash, the file has to be uploaded"),
+        @ApiResponse(responseCode = "409", description = "Duplicate file ID")})
+    @PutMapping(path = "/by-hash", produces = {"application/json"}, consumes = {
+        "application/json"})
+    public ResponseEntity<FileUploadResponse> createFromExistingContent(
+        @RequestBody FileMetadataDto fileMetadataDto) {
+        return ResponseEntity.ok(
+            new FileUploadResponse(fileService.createFromExistingContent(fileMetadataDto)));
+    }
+
+    @Operation(summary = "Endpoint allows to stream raw content to S3 bucket without multipart buffering", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = FileUploadResponse.class))}),
+        @ApiResponse(responseCode = "400", description = "Invalid or duplicate file ID/name or file metadata doesn't have all required fields"),
+        @ApiResponse(responseCode = "500", description = "Internal error")})
+    @PutMapping(produces = {"application/json"}, consumes = {"application/octet-stream"})
+    public ResponseEntity<FileUploadResponse> uploadFileStream(
+        @Parameter(description = "URL encoded name of the file", required = true, example = "dump.zip")
+        @RequestHeader(Headers.FILE_NAME) String fileName,
+        @Parameter(description = "Id of the file")
+        @RequestHeader(name = Headers.FILE_ID, required = false) String fileId,
+        @Parameter(description = "Preferred user name")
+        @RequestHeader(name = Headers.SOURCE_ID, required = false) String sourceId,
+        @Parameter(description = "Ignored, the storage id of a file is assigned by the service", deprecated = true)
+        @RequestHeader(name = Headers.STORAGE_ID, required = false) String storageId,
+        @Parameter(description = "SHA-256 of the file being uploaded")
+        @RequestHeader(name = Headers.FILE_HASH, required = false) String hash,
+        @RequestHeader(name = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+        HttpServletRequest request) throws IOException {
+
+        FileMetadataDto fileMetadataDto = FileMetadataDto.builder()
+            .resourceId(fileId)
+            .sourceId(sourceId)
+            .name(URLDecoder.decode(fileName, StandardCharsets.UTF_8))
+            .storageId(storageId)
+            .hash(hash)
+            .sizeInBytes(Optional.ofNullable(contentLength).orElse(-1L))
+            .build();
+
+        // the request body is piped to the storage as it arrives, so it can't be re-read on retry
+        try (InputStream stream = request.getInputStream()) {
+            var uploadedFileId = fileService.uploadFile(fileMetadataDto, stream);
+            return ResponseEntity.ok(new FileUploadResponse(uploadedFileId));
+        }
+    }
+
+    @Operation(summary = "Endpoint allows to download content from S3 bucket. Supports Range and If-Range requests including multiple ranges, which are coalesced and answered with the whole content beyond download.maxRanges", responses = {
+        @ApiResponse(responseCode = "200", description = "OK"),
+        @ApiResponse(responseCode = "206", description = "Partial content"),
+        @ApiResponse(responseCode = "404", description = "File not found"),
+        @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")})
+    @GetMapping(path = "/{fileId}/content", produces = {"*/*"})
+    public ResponseEntity<StreamingResponseBody> downloadFile(
+        @Parameter(description = "Id of the file") @PathVariable String fileId,
+        @RequestHeader HttpHeaders requestHeaders, HttpServletRequest request) {
+
+        var fileMetadata = fileService.getFileMetadataById(fileId);
+        var fileStat = fileService.getFileStat(fileMetadata);
+        var etag = fileStat.getEtag();
+        var length = fileStat.getLength();
+        var contentType = Optional.ofNullable(fileMetadata.getContentType())
+            .orElse(fileStat.getContentType());
+
+        var responseHeaders = new HttpHeaders();
+        responseHeaders.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        responseHeaders.setETag(ByteRanges.quoteETag(etag));
+        responseHeaders.setContentDisposition(ContentDisposition.attachment()
+            .filename(fileMetadata.getName(), StandardCharsets.UTF_8)
+            .build());
+
+        var resolvedRanges = ByteRanges.resolve(requestHeaders, etag, length,
+            downloadProperties.getMaxRanges());
+        if (resolvedRanges.isEmpty()) {
+            responseHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .headers(responseHeaders)
+                .build();
+        }
+        var ranges = resolvedRanges.get();
+
+        if (ranges.isEmpty()) {
+            responseHeaders.setContentType(MediaType.parseMediaType(contentType));
+            responseHeaders.setContentLength(length);
+            if (contentSender.isSendFileSupported(request)) {
+                var localCopy = fileService.linkLocalCopy(fileMetadata, etag);
+                if (localCopy.isPresent()) {
+                    contentSender.sendFile(request, localCopy.get(), 0, length);
+                    return ResponseEntity.ok().headers(responseHeaders).build();
+                }
+            }
+            StreamingResponseBody body = outputStream -> {
+                try (var inputStream = fileService.downloadByFileId(fileMetadata)
+                    .getInputStream()) {
+                    contentSender.relay(inputStream, outputStream);
+                }
+            };
+            return ResponseEntity.ok().headers(responseHeaders).body(body);
+        }
+
+        if (ranges.size() == 1) {
+            var range = ranges.get(0);
+            responseHeaders.setContentType(MediaType.parseMediaType(contentType));
+            responseHeaders.setContentLength(range.length());
+            responseHeaders.set(HttpHeaders.CONTENT_RANGE, range.contentRange(length));
+            // opened only once the body is written, a stream opened here would leak its
+            // buffers if the body never runs
+            StreamingResponseBody body = outputStream -> {
+                try (var inputStream = fileService.downloadRangeByFileId(fileMetadata,
+                    range.start(), range.length(), etag)) {
+                    contentSender.relay(inputStream, outputStream);
+                }
+            };
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(responseHeaders)
+                .body(body);
+        }
+
+        var boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        responseHeaders.setContentType(
+            MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary));
+        StreamingResponseBody body = outputStream -> {
+            for (var range : ranges) {
+                outputStream.write(("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + range.contentRange(length)
+                    + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                try (var inputStream = fileService.downloadRangeByFileId(fileMetadata,
+                    range.start(), range.length(), etag)) {
+                    contentSender.relay(inputStream, outputStream);
+                }
+            }
+            outputStream.write(("\r\n--" + boundary + "--\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        };
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+            .headers(responseHeaders)
+            .body(body);
+    }
+
+    @Operation(summary = "Endpoint allows to download several files from S3 bucket as a single zip archive", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/zip")}),
+        @ApiResponse(responseCode = "400", description = "File ids are missing"),
+        @ApiResponse(responseCode = "404", description = "Metadata not found for one of the file ids"),
+        @ApiResponse(responseCode = "500", description = "Internal error or unsupported package type")})
+    @PostMapping(path = "/bulk-download", produces = {"application/zip"}, consumes = {
+        "application/json"})
+    public ResponseEntity<StreamingResponseBody> bulkDownload(
+        @Parameter(description = "Name of the resulting archive", example = "files.zip")
+        @RequestParam(name = "output_file_name", defaultValue = "files.zip") String outputFileName,
+        @Valid @RequestBody BulkDownloadRequestDto bulkDownloadRequestDto) {
+
+        var bulkFileMetadata = fileService.createBulkFileMetadata(outputFileName);
+        var fileMetadataList = fileService.getFileMetadataById(
+            bulkDownloadRequestDto.getFileIds());
+
+        StreamingResponseBody body = outputStream ->
+            fileService.bulkDownload(fileMetadataList, outputFileName, outputStream);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(bulkFileMetadata.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(outputFileName)
+                .build()
+                .toString())
+            .body(body);
+    }
+
+    @Operation(summary = "Endpoint allows to delete several files. The files are marked deleted right away, their content is removed in the background", responses = {
+        @ApiResponse(responseCode = "202", description = "Accepted", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = BulkDeleteResponse.class))}),
+        @ApiResponse(responseCode = "400", description = "File ids are missing"),
+        @ApiResponse(responseCode = "500", description = "Internal error")})
+    @PostMapping(path = "/bulk-delete", produces = {"application/json"}, consumes = {
+        "application/json"})
+    public ResponseEntity<BulkDeleteResponse> bulkDelete(
+        @Valid @RequestBody BulkDeleteRequestDto bulkDeleteRequestDto) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(new BulkDeleteResponse(
+                fileService.bulkDelete(bulkDeleteRequestDto.getFileIds())));
+    }
+
     private FileMetadataDto createFileMetadataDto(String fileMetadata)
         throws JsonProcessingException {
         return objectMapper.readValue(fileMetadata, FileMetadataDto.class);
     }
 
     public FileController(final FileService fileService, final ObjectMapper objectMapper,
-        final MinioProperties minioProperties) {
+        final MinioProperties minioProperties, final ContentSender contentSender,
+        final DownloadProperties downloadProperties) {
         this.fileService = fileService;
         this.objectMapper = objectMapper;
         this.minioProperties = minioProperties;
+        this.contentSender = contentSender;
+        this.downloadProperties = downloadProperties;
     }
 }
@@ -0,0 +1,135 @@
+package com.demo.awsstorage.controller;
+
+import com.demo.awsstorage.constant.Headers;
+import com.demo.awsstorage.dto.FileMetadataDto;
+import com.demo.awsstorage.dto.FileUploadResponse;
+import com.demo.awsstorage.service.ReactiveFileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams file content on the WebFlux stack, which replaces the servlet based
+ * {@link FileController} when the application runs as a reactive web application. Request and
+ * response bodies are passed between the client and the storage buffer by buffer, so reading
+ * either side only as fast as the other side consumes it.
+ */
+@RestController
+@Validated
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Tag(name = "Reactive file controller", description = "Provides non-blocking operations to stream files to/from S3/minio bucket")
+@RequestMapping(path = {"/v1/files"}, produces = {"application/json"})
+public class ReactiveFileController {
+
+    private final ReactiveFileService reactiveFileService;
+
+    @Operation(summary = "Endpoint allows to stream raw content to S3 bucket", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = FileUploadResponse.class))}),
+        @ApiResponse(responseCode = "400", description = "Invalid or duplicate file ID/name or file metadata doesn't have all required fields"),
+        @ApiResponse(responseCode = "500", description = "Internal error")})
+    @PutMapping(produces = {"application/json"}, consumes = {"application/octet-stream"})
+    public Mono<FileUploadResponse> uploadFileStream(
+        @Parameter(description = "URL encoded name of the file", required = true, example = "dump.zip")
+        @RequestHeader(Headers.FILE_NAME) String fileName,
+        @Parameter(description = "Id of the file")
+        @RequestHeader(name = Headers.FILE_ID, required = false) String fileId,
+        @Parameter(description = "Preferred user name")
+        @RequestHeader(name = Headers.SOURCE_ID, required = false) String sourceId,
+        @Parameter(description = "Ignored, the storage id of a file is assigned by the service", deprecated = true)
+        @RequestHeader(name = Headers.STORAGE_ID, required = false) String storageId,
+        @Parameter(description = "SHA-256 of the file being uploaded")
+        @RequestHeader(name = Headers.FILE_HASH, required = false) String hash,
+        @RequestHeader(name = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+        @RequestBody Flux<DataBuffer> content) {
+
+        FileMetadataDto fileMetadataDto = FileMetadataDto.builder()
+            .resourceId(fileId)
+            .sourceId(sourceId)
+            .name(URLDecoder.decode(fileName, StandardCharsets.UTF_8))
+            .storageId(storageId)
+            .hash(hash)
+            .sizeInBytes(Optional.ofNullable(contentLength).orElse(-1L))
+            .build();
+
+        return reactiveFileService.uploadFile(fileMetadataDto, content)
+            .map(FileUploadResponse::new);
+    }
+
+    @Operation(summary = "Endpoint allows to download content from S3 bucket. Supports Range and If-Range requests with a single range", responses = {
+        @ApiResponse(responseCode = "200", description = "OK"),
+        @ApiResponse(responseCode = "206", description = "Partial content"),
+        @ApiResponse(responseCode = "404", description = "File not found"),
+        @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")})
+    @GetMapping(path = "/{fileId}/content", produces = {"*/*"})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> downloadFile(
+        @Parameter(description = "Id of the file") @PathVariable String fileId,
+        @RequestHeader HttpHeaders requestHeaders) {
+        return reactiveFileService.getFileMetadataById(fileId)
+            .flatMap(fileMetadata -> reactiveFileService.getFileStat(fileMetadata)
+                .map(fileStat -> {
+                    var etag = fileStat.getEtag();
+                    var length = fileStat.getLength();
+                    var contentType = Optional.ofNullable(fileMetadata.getContentType())
+                        .orElse(fileStat.getContentType());
+
+                    var responseHeaders = new HttpHeaders();
+                    responseHeaders.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+                    responseHeaders.setETag(ByteRanges.quoteETag(etag));
+                    responseHeaders.setContentDisposition(ContentDisposition.attachment()
+                        .filename(fileMetadata.getName(), StandardCharsets.UTF_8)
+                        .build());
+                    responseHeaders.setContentType(MediaType.parseMediaType(contentType));
+
+                    // a single range is served, several are answered with the whole content
+                    var ranges = ByteRanges.resolve(requestHeaders, etag, length, 1);
+                    if (ranges.isEmpty()) {
+                        responseHeaders.remove(HttpHeaders.CONTENT_TYPE);
+                        responseHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .headers(responseHeaders)
+                            .<Flux<DataBuffer>>build();
+                    }
+                    if (ranges.get().isEmpty()) {
+                        responseHeaders.setContentLength(length);
+                        return ResponseEntity.ok()
+                            .headers(responseHeaders)
+                            .body(reactiveFileService.downloadByFileId(fileMetadata));
+                    }
+
+                    var range = ranges.get().get(0);
+                    responseHeaders.setContentLength(range.length());
+                    responseHeaders.set(HttpHeaders.CONTENT_RANGE, range.contentRange(length));
+                    return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                        .headers(responseHeaders)
+                        .body(reactiveFileService.downloadRangeByFileId(fileMetadata,
+                            range.start(), range.length(), etag));
+                }));
+    }
+}
@@ -0,0 +1,99 @@
+package com.demo.awsstorage.controller;
+
+import com.demo.awsstorage.dto.FileMetadataDto;
+import com.demo.awsstorage.dto.UploadPartDto;
+import com.demo.awsstorage.dto.UploadSessionDto;
+import com.demo.awsstorage.service.ResumableUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Validated
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequiredArgsConstructor
+@Tag(name = "Resumable upload controller", description = "Provides operations to upload big files to S3/minio bucket part by part")
+@RequestMapping(path = {"/v1/files/uploads"}, produces = {"application/json"})
+public class ResumableUploadController {
+
+    private final ResumableUploadService resumableUploadService;
+
+    @Operation(summary = "Endpoint allows to initiate a resumable upload", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = UploadSessionDto.class))}),
+        @ApiResponse(responseCode = "409", description = "Duplicate file ID")})
+    @PostMapping(consumes = {"application/json"})
+    public ResponseEntity<UploadSessionDto> initiate(
+        @RequestBody FileMetadataDto fileMetadataDto) {
+        return ResponseEntity.ok(resumableUploadService.initiate(fileMetadataDto));
+    }
+
+    @Operation(summary = "Endpoint allows to upload a part of a resumable upload. Uploading the same part number again replaces the part", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = UploadPartDto.class))}),
+        @ApiResponse(responseCode = "400", description = "Invalid part number or part exceeds the part size"),
+        @ApiResponse(responseCode = "403", description = "File has no upload in progress"),
+        @ApiResponse(responseCode = "404", description = "File not found")})
+    @PutMapping(path = "/{fileId}/parts/{partNumber}", consumes = {"application/octet-stream"})
+    public ResponseEntity<UploadPartDto> uploadPart(
+        @Parameter(description = "Id of the file") @PathVariable String fileId,
+        @Parameter(description = "Number of the part, starting from 1") @PathVariable int partNumber,
+        HttpServletRequest request) throws IOException {
+        try (InputStream stream = request.getInputStream()) {
+            return ResponseEntity.ok(
+                resumableUploadService.uploadPart(fileId, partNumber, stream));
+        }
+    }
+
+    @Operation(summary = "Endpoint allows to get state and stored parts of a resumable upload", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = UploadSessionDto.class))}),
+        @ApiResponse(responseCode = "404", description = "File not found")})
+    @GetMapping(path = "/{fileId}")
+    public ResponseEntity<UploadSessionDto> getUpload(
+        @Parameter(description = "Id of the file") @PathVariable String fileId) {
+        return ResponseEntity.ok(resumableUploadService.getUpload(fileId));
+    }
+
+    @Operation(summary = "Endpoint allows to complete a resumable upload", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = UploadSessionDto.class))}),
+        @ApiResponse(responseCode = "400", description = "No parts uploaded"),
+        @ApiResponse(responseCode = "403", description = "File has no upload in progress"),
+        @ApiResponse(responseCode = "404", description = "File not found")})
+    @PostMapping(path = "/{fileId}/complete")
+    public ResponseEntity<UploadSessionDto> complete(
+        @Parameter(description = "Id of the file") @PathVariable String fileId) {
+        return ResponseEntity.ok(resumableUploadService.complete(fileId));
+    }
+
+    @Operation(summary = "Endpoint allows to abort a resumable upload", responses = {
+        @ApiResponse(responseCode = "204", description = "No content"),
+        @ApiResponse(responseCode = "403", description = "File has no upload in progress"),
+        @ApiResponse(responseCode = "404", description = "File not found")})
+    @DeleteMapping(path = "/{fileId}")
+    public ResponseEntity<Void> abort(
+        @Parameter(description = "Id of the file") @PathVariable String fileId) {
+        resumableUploadService.abort(fileId);
+        return ResponseEntity.noContent().build();
+    }
+}
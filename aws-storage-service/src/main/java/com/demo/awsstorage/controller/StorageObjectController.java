@@ -0,0 +1,86 @@
+package com.demo.awsstorage.controller;
+
+import com.demo.awsstorage.dto.StorageObjectCopyRequestDto;
+import com.demo.awsstorage.dto.StorageObjectCopyResultDto;
+import com.demo.awsstorage.dto.StorageObjectDto;
+import com.demo.awsstorage.dto.StorageObjectPageDto;
+import com.demo.awsstorage.service.StorageObjectService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@Validated
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequiredArgsConstructor
+@Tag(name = "Storage object controller", description = "Provides operations to list, copy and move the objects of the S3/minio buckets")
+@RequestMapping(path = {"/v1/storage-objects"}, produces = {"application/json"})
+public class StorageObjectController {
+
+    private final StorageObjectService storageObjectService;
+
+    @Operation(summary = "Endpoint allows to list all objects under a prefix. The objects are streamed while the bucket is listed", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = StorageObjectDto.class)))})})
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> listObjects(
+        @Parameter(description = "Prefix of the object keys", example = "images/")
+        @RequestParam(name = "prefix", required = false) String prefix,
+        @Parameter(description = "Whether objects below the next '/' are listed too")
+        @RequestParam(name = "recursive", defaultValue = "true") boolean recursive,
+        @Parameter(description = "Whether the keys under the prefix are listed as concurrent key range shards, which suits hex named keys best")
+        @RequestParam(name = "parallel", defaultValue = "false") boolean parallel,
+        @Parameter(description = "Whether a parallel listing keeps the key order")
+        @RequestParam(name = "sorted", defaultValue = "true") boolean sorted) {
+        StreamingResponseBody body = outputStream ->
+            storageObjectService.writeObjects(prefix, recursive, parallel, sorted, outputStream);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
+    @Operation(summary = "Endpoint allows to list a page of objects under a prefix", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = StorageObjectPageDto.class))})})
+    @GetMapping(path = "/page")
+    public ResponseEntity<StorageObjectPageDto> listObjectsPage(
+        @Parameter(description = "Prefix of the object keys", example = "images/")
+        @RequestParam(name = "prefix", required = false) String prefix,
+        @Parameter(description = "Whether objects below the next '/' are listed too")
+        @RequestParam(name = "recursive", defaultValue = "true") boolean recursive,
+        @Parameter(description = "Token returned with the previous page")
+        @RequestParam(name = "continuation_token", required = false) String continuationToken,
+        @Parameter(description = "Maximum number of keys of the page, at most 1000")
+        @RequestParam(name = "max_keys", defaultValue = "1000") int maxKeys) {
+        return ResponseEntity.ok(
+            storageObjectService.listObjects(prefix, recursive, continuationToken, maxKeys));
+    }
+
+    @Operation(summary = "Endpoint allows to copy or move the objects under a prefix or a list of objects, between buckets and named clients. The images/ keys of the files in the service bucket can't be copied or overwritten, they are managed with their metadata", responses = {
+        @ApiResponse(responseCode = "200", description = "OK", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = StorageObjectCopyResultDto.class))}),
+        @ApiResponse(responseCode = "400", description = "Neither or both of source prefix and object names given, unknown client, destination overlapping the source objects or source or destination under the images/ keys of the files"),
+        @ApiResponse(responseCode = "500", description = "Internal error")})
+    @PostMapping(path = "/copy", consumes = {"application/json"})
+    public ResponseEntity<StorageObjectCopyResultDto> copyObjects(
+        @RequestBody StorageObjectCopyRequestDto copyRequest) {
+        return ResponseEntity.ok(storageObjectService.copyObjects(copyRequest));
+    }
+}
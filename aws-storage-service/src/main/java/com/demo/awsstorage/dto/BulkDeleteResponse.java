@@ -0,0 +1,15 @@
+package com.demo.awsstorage.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Value;
+
+@Value
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+@Schema(title = "Bulk Delete Response")
+public class BulkDeleteResponse {
+
+    @Schema(description = "Number of files marked deleted, unknown and already deleted ids aren't counted.")
+    int deletedCount;
+}
@@ -40,10 +40,10 @@ public class FileMetadataDto {
             + SPECIAL_CHARACTER_VALIDATION_PATTERN)
     String name;
 
-    @Schema(description = "External Id of the resource.", example = "9053e5f0-f9fe-49ef-a49a-695bbaf30aa7")
+    @Schema(description = "Ignored, the storage id of a file is assigned by the service.", deprecated = true)
     String storageId;
 
-    @Schema(description = "Computed SHA-256 has of the file.", example = "8e8b95318a10368f5ea1953f9ec231556790f76e0af9030e905ffa4ab5b53fcc")
+    @Schema(description = "Computed SHA-256 has of the file. Verified against the content of single request uploads, ignored for resumable uploads.", example = "8e8b95318a10368f5ea1953f9ec231556790f76e0af9030e905ffa4ab5b53fcc")
     String hash;
 
     @Schema(description = "File size", example = "3000")
@@ -0,0 +1,43 @@
+package com.demo.awsstorage.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+@Schema(title = "Storage Object Copy Request", description = "Objects to copy or move, either all objects under a prefix or a list of keys.")
+public class StorageObjectCopyRequestDto {
+
+    @Schema(description = "Prefix of the objects to copy, which is replaced by the destination prefix.", example = "tenants/a/")
+    private String sourcePrefix;
+
+    @Schema(description = "Keys of the objects to copy, which are appended to the destination prefix.")
+    private List<String> objectNames;
+
+    @Schema(description = "Named client of the source, the default client when absent.")
+    private String sourceClient;
+
+    @Schema(description = "Bucket of the source, the bucket of the source client when absent.")
+    private String sourceBucket;
+
+    @Schema(description = "Named client of the destination, the default client when absent. Objects are streamed between different clients instead of being copied server side.")
+    private String destinationClient;
+
+    @Schema(description = "Bucket of the destination, the bucket of the destination client when absent.")
+    private String destinationBucket;
+
+    @Schema(description = "Prefix of the copied objects.", example = "tenants/b/")
+    private String destinationPrefix;
+
+    @Schema(description = "Whether the sources are removed after they have been copied.")
+    private boolean move;
+}
@@ -0,0 +1,24 @@
+package com.demo.awsstorage.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+@Schema(title = "Storage Object Copy Result")
+public class StorageObjectCopyResultDto {
+
+    @Schema(description = "Number of copied objects.")
+    long copiedCount;
+
+    @Schema(description = "Number of sources removed after the copy by a move.")
+    long removedCount;
+
+    @Schema(description = "Sources which couldn't be copied, or couldn't be removed after the copy by a move.")
+    List<String> failedObjects;
+}
@@ -0,0 +1,27 @@
+package com.demo.awsstorage.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.ZonedDateTime;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+@Schema(title = "Storage Object", description = "Object stored in the bucket.")
+public class StorageObjectDto {
+
+    @Schema(description = "Key of the object.", example = "images/0b9d7c4e-5f0c-4a4e-9d0a-2f1e7f3c1a11")
+    String name;
+
+    @Schema(description = "Size of the object.", example = "20971520")
+    long sizeInBytes;
+
+    @Schema(description = "ETag of the object.")
+    String etag;
+
+    @Schema(description = "Time of the last modification.")
+    ZonedDateTime lastModified;
+}
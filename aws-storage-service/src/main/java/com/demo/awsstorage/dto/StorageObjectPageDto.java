@@ -0,0 +1,26 @@
+package com.demo.awsstorage.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+@Schema(title = "Storage Object Page", description = "Page of a bucket listing.")
+public class StorageObjectPageDto {
+
+    @Schema(description = "Objects of the page.")
+    List<StorageObjectDto> objects;
+
+    @Schema(description = "Common prefixes of a non-recursive listing, the folders on this level.")
+    List<String> prefixes;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Token to request the next page with, absent on the last page.")
+    String nextContinuationToken;
+}
@@ -0,0 +1,23 @@
+package com.demo.awsstorage.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+@Schema(title = "Upload Part", description = "Part of a resumable upload stored so far.")
+public class UploadPartDto {
+
+    @Schema(description = "Number of the part, starting from 1.", example = "1")
+    int partNumber;
+
+    @Schema(description = "ETag of the stored part.")
+    String etag;
+
+    @Schema(description = "Size of the part.", example = "20971520")
+    long sizeInBytes;
+}
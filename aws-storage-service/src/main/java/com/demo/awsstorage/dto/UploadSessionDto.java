@@ -0,0 +1,27 @@
+package com.demo.awsstorage.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+@Schema(title = "Resumable Upload", description = "State of a resumable upload.")
+public class UploadSessionDto {
+
+    @Schema(description = "Id of the file being uploaded.")
+    String fileId;
+
+    @Schema(description = "Upload status of the file.", example = "PENDING")
+    String uploadStatus;
+
+    @Schema(description = "Size of every part except the last one.", example = "20971520")
+    int partSize;
+
+    @Schema(description = "Parts already stored.")
+    List<UploadPartDto> parts;
+}
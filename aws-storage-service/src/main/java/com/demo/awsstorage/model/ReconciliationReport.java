@@ -0,0 +1,15 @@
+package com.demo.awsstorage.model;
+
+import lombok.Data;
+
+@Data
+public class ReconciliationReport {
+
+    private boolean fixed;
+    private long scannedObjects;
+    private long orphanObjects;
+    private long danglingFiles;
+    private long stalePendingFiles;
+    private long staleMultipartUploads;
+    private long failures;
+}
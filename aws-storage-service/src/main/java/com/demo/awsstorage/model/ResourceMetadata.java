@@ -9,6 +9,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.io.Serializable;
 import java.time.OffsetDateTime;
@@ -22,6 +23,7 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
@@ -30,7 +32,12 @@ import org.hibernate.annotations.UpdateTimestamp;
 @EqualsAndHashCode
 @ToString
 @Builder
-@Table(name = "resource_metadata")
+@Table(name = "resource_metadata", indexes = {
+    @Index(name = "idx_resource_metadata_hash", columnList = "hash"),
+    @Index(name = "idx_resource_metadata_storage_id", columnList = "storageId"),
+    @Index(name = "idx_resource_metadata_deleted_on", columnList = "deletedOn")})
+// deleted files are hidden from all queries until their content has been removed
+@SQLRestriction("deleted_on is null")
 @NoArgsConstructor
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -42,7 +49,12 @@ public class ResourceMetadata implements Serializable {
     String name;
     String storageId;
     String hash;
+    // set only for a hash the service computed from the stored content, which is the only kind
+    // deduplication may trust
+    boolean hashVerified;
     String contentType;
+    String uploadId;
+    String etag;
     long sizeInBytes;
     long folderHeight;
     long fileCount;
@@ -57,6 +69,8 @@ public class ResourceMetadata implements Serializable {
     @UpdateTimestamp
     OffsetDateTime updatedOn;
 
+    OffsetDateTime deletedOn;
+
     @Builder.Default
     String scanStatus = NO_FILE;
 
@@ -74,7 +88,6 @@ public class ResourceMetadata implements Serializable {
         return builder.resourceId(fileMetadataDto.getResourceId())
             .sourceId(fileMetadataDto.getSourceId())
             .name(fileMetadataDto.getName())
-            .storageId(fileMetadataDto.getStorageId())
             .hash(fileMetadataDto.getHash())
             .sizeInBytes(fileMetadataDto.getSizeInBytes())
             .nodeType(NodeType.FILE);
@@ -0,0 +1,15 @@
+package com.demo.awsstorage.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Files sharing a stored object, as read by the reconciliation of the bucket and the metadata.
+ */
+public interface StorageReference {
+
+    String getStorageId();
+
+    long getCompletedCount();
+
+    OffsetDateTime getUpdatedOn();
+}
@@ -0,0 +1,58 @@
+package com.demo.awsstorage.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.UpdateTimestamp;
+
+/**
+ * Part of a resumable upload which is already stored in the multipart upload of
+ * {@link ResourceMetadata#getUploadId()}.
+ */
+@Entity
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+@Table(name = "upload_part")
+@IdClass(UploadPartMetadata.UploadPartId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UploadPartMetadata implements Serializable {
+
+    @Id
+    String resourceId;
+
+    @Id
+    int partNumber;
+
+    String etag;
+    long sizeInBytes;
+
+    @UpdateTimestamp
+    OffsetDateTime updatedOn;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UploadPartId implements Serializable {
+
+        private String resourceId;
+        private int partNumber;
+    }
+}
@@ -2,11 +2,16 @@ package com.demo.awsstorage.repository;
 
 import com.demo.awsstorage.model.NodeType;
 import com.demo.awsstorage.model.ResourceMetadata;
+import com.demo.awsstorage.model.StorageReference;
 import com.demo.awsstorage.model.UploadStatus;
+import jakarta.persistence.LockModeType;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -36,4 +41,60 @@ public interface FileMetadataRepository extends JpaRepository<ResourceMetadata,
 
     List<ResourceMetadata> findByResourceIdInAndNodeType(List<String> resourceId,
         NodeType nodeType);
+
+    Optional<ResourceMetadata> findFirstByHashAndHashVerifiedTrueAndUploadStatusAndNodeType(
+        String hash, UploadStatus uploadStatus, NodeType nodeType);
+
+    long countByStorageId(String storageId);
+
+    /**
+     * Locks the files sharing the objects of the given storage ids. Deduplication adopts a
+     * storage id and deletes count its references only while holding these locks, so an object
+     * can't be removed while a new file is made to point at it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM ResourceMetadata f WHERE f.storageId IN :storageIds")
+    List<ResourceMetadata> lockByStorageIdIn(Collection<String> storageIds);
+
+    boolean existsByUploadId(String uploadId);
+
+    /**
+     * Keyset page of the distinct storage ids of files greater than {@code storageId}, in
+     * ascending order.
+     */
+    @Query("SELECT f.storageId AS storageId, "
+        + "SUM(CASE WHEN f.uploadStatus = com.demo.awsstorage.model.UploadStatus.COMPLETED THEN 1 ELSE 0 END) AS completedCount, "
+        + "MAX(f.updatedOn) AS updatedOn "
+        + "FROM ResourceMetadata f "
+        + "WHERE f.nodeType = com.demo.awsstorage.model.NodeType.FILE AND f.storageId > :storageId "
+        + "GROUP BY f.storageId ORDER BY f.storageId")
+    List<StorageReference> findStorageReferencesAfter(String storageId, Pageable pageable);
+
+    List<ResourceMetadata> findByUploadStatusAndNodeTypeAndCreatedOnBeforeAndResourceIdGreaterThanOrderByResourceId(
+        UploadStatus uploadStatus, NodeType nodeType, OffsetDateTime createdOn, String resourceId,
+        Pageable pageable);
+
+    @Transactional
+    @Modifying
+    void deleteByStorageIdAndUploadStatus(String storageId, UploadStatus uploadStatus);
+
+    @Transactional
+    @Modifying
+    @Query("Update ResourceMetadata f SET f.deletedOn=:deletedOn, f.updatedOn=:deletedOn WHERE f.resourceId IN :fileIds AND f.nodeType = com.demo.awsstorage.model.NodeType.FILE AND f.deletedOn IS NULL")
+    int markDeleted(Collection<String> fileIds, OffsetDateTime deletedOn);
+
+    /**
+     * Keyset page of the files marked deleted, which the entity restriction hides from every
+     * other query.
+     */
+    @Query(value = "SELECT * FROM resource_metadata WHERE deleted_on IS NOT NULL AND resource_id > :resourceId ORDER BY resource_id", nativeQuery = true)
+    List<ResourceMetadata> findDeletedAfter(String resourceId, Pageable pageable);
+
+    @Query("SELECT DISTINCT f.storageId FROM ResourceMetadata f WHERE f.storageId IN :storageIds")
+    List<String> findReferencedStorageIds(Collection<String> storageIds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM resource_metadata WHERE resource_id IN (:fileIds) AND deleted_on IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(Collection<String> fileIds);
 }
@@ -0,0 +1,24 @@
+package com.demo.awsstorage.repository;
+
+import com.demo.awsstorage.model.UploadPartMetadata;
+import com.demo.awsstorage.model.UploadPartMetadata.UploadPartId;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface UploadPartRepository extends JpaRepository<UploadPartMetadata, UploadPartId> {
+
+    List<UploadPartMetadata> findByResourceIdOrderByPartNumber(String resourceId);
+
+    @Transactional
+    @Modifying
+    void deleteByResourceId(String resourceId);
+
+    @Transactional
+    @Modifying
+    void deleteByResourceIdIn(Collection<String> resourceIds);
+}
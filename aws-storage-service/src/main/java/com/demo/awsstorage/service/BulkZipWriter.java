@@ -0,0 +1,143 @@
+package com.demo.awsstorage.service;
+
+import static com.demo.awsstorage.service.FileService.getStoragePath;
+
+import com.demo.awsstorage.configuration.BulkDownloadProperties;
+import com.demo.awsstorage.exception.FileStorageIOException;
+import com.demo.awsstorage.model.ResourceMetadata;
+import com.demo.filestoresdk.service.BufferPool;
+import com.demo.filestoresdk.service.MinioStoreService;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes a zip archive of stored files while the next {@code prefetchConcurrency} objects are
+ * fetched in parallel. Entries are always written in the order of the given metadata list.
+ * Prefetched content is kept in buffers leased from the shared {@link BufferPool} within the per
+ * request memory budget, objects which don't fit keep their storage stream open and are piped
+ * when their entry is written.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkZipWriter {
+
+    private final MinioStoreService minioStoreService;
+    private final BufferPool bufferPool;
+    private final BulkDownloadProperties properties;
+    private final ExecutorService bulkDownloadExecutor;
+
+    public void write(final List<ResourceMetadata> fileMetadataList,
+        final OutputStream outputStream) throws IOException {
+        var budget = bufferPool.newBudget(properties.getMemoryBudget().toBytes());
+        var window = new ArrayDeque<CompletableFuture<PrefetchedEntry>>();
+        var pending = fileMetadataList.iterator();
+        var bufferSize = (int) properties.getBufferSize().toBytes();
+
+        try (var zipOutputStream = new ZipOutputStream(
+            new BufferedOutputStream(outputStream, bufferSize))) {
+
+            fillWindow(window, pending, budget);
+            while (!window.isEmpty()) {
+                try (var entry = await(window.poll())) {
+                    fillWindow(window, pending, budget);
+                    zipOutputStream.putNextEntry(new ZipEntry(entry.name()));
+                    entry.inputStream().transferTo(zipOutputStream);
+                    zipOutputStream.closeEntry();
+                }
+            }
+            zipOutputStream.finish();
+        } finally {
+            window.forEach(future -> future.thenAccept(PrefetchedEntry::close));
+        }
+    }
+
+    private void fillWindow(final Deque<CompletableFuture<PrefetchedEntry>> window,
+        final Iterator<ResourceMetadata> pending, final BufferPool.Budget budget) {
+        var concurrency = Math.max(1, properties.getPrefetchConcurrency());
+        while (window.size() < concurrency && pending.hasNext()) {
+            var fileMetadata = pending.next();
+            window.add(CompletableFuture.supplyAsync(() -> prefetch(fileMetadata, budget),
+                bulkDownloadExecutor));
+        }
+    }
+
+    private PrefetchedEntry prefetch(final ResourceMetadata fileMetadata,
+        final BufferPool.Budget budget) {
+        var file = minioStoreService.getFileFromStorage(minioStoreService.getBucketName(),
+            getStoragePath(fileMetadata));
+        var size = file.getObjectStat().size();
+        var buffer = size > 0 && size <= Integer.MAX_VALUE
+            ? budget.tryAcquire((int) size)
+            : null;
+        if (buffer == null) {
+            return new PrefetchedEntry(fileMetadata.getName(), file.getInputStream(), null,
+                budget);
+        }
+
+        try (var inputStream = file.getInputStream()) {
+            var length = inputStream.readNBytes(buffer, 0, (int) size);
+            return new PrefetchedEntry(fileMetadata.getName(),
+                new ByteArrayInputStream(buffer, 0, length), buffer, budget);
+        } catch (IOException ex) {
+            budget.release(buffer);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            budget.release(buffer);
+            throw ex;
+        }
+    }
+
+    private PrefetchedEntry await(final CompletableFuture<PrefetchedEntry> future)
+        throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageIOException("Interrupted while prefetching bulk files", ex);
+        } catch (ExecutionException ex) {
+            var cause = ex.getCause() instanceof CompletionException ? ex.getCause().getCause()
+                : ex.getCause();
+            if (cause instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new FileStorageIOException("Failed to prefetch bulk file", cause);
+        }
+    }
+
+    private record PrefetchedEntry(String name, InputStream inputStream, byte[] buffer,
+                                   BufferPool.Budget budget) implements Closeable {
+
+        @Override
+        public void close() {
+            try {
+                inputStream.close();
+            } catch (IOException ex) {
+                log.warn("Failed to close prefetched stream of {}", name, ex);
+            } finally {
+                budget.release(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.demo.awsstorage.service;
+
+import com.demo.awsstorage.configuration.DownloadProperties;
+import com.demo.filestoresdk.service.BufferPool;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes download content to the response with as few copies as the source allows. Content
+ * staged in the local object cache is handed to the servlet container for sendfile, so it goes
+ * from the page cache to the socket without passing through the heap. Other content is relayed
+ * through a single buffer leased from the {@link BufferPool} instead of the per call buffers of
+ * {@link InputStream#transferTo}, or through a small buffer of its own while the pool is
+ * exhausted, so relaying never waits for the pool.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContentSender {
+
+    static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+    private static final int FALLBACK_BUFFER_SIZE = 8 * 1024;
+
+    private final DownloadProperties properties;
+    private final BufferPool bufferPool;
+
+    public boolean isSendFileSupported(HttpServletRequest request) {
+        return properties.isSendfileEnabled()
+            && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR));
+    }
+
+    /**
+     * Asks the servlet container to send a region of a local file once the handler returns. The
+     * response must have its content length set and no body written. The container opens the
+     * file only then, so it must be one nothing else removes in between, such as a link from
+     * {@link FileService#linkLocalCopy}.
+     */
+    public void sendFile(HttpServletRequest request, Path file, long start, long length) {
+        request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START_ATTR, start);
+        request.setAttribute(SENDFILE_END_ATTR, start + length);
+    }
+
+    public long relay(InputStream inputStream, OutputStream outputStream) throws IOException {
+        var buffer = bufferPool.tryAcquire((int) properties.getRelayBufferSize().toBytes());
+        var pooled = buffer != null;
+        if (!pooled) {
+            buffer = new byte[FALLBACK_BUFFER_SIZE];
+        }
+        try {
+            var transferred = 0L;
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+                transferred += read;
+            }
+            return transferred;
+        } finally {
+            if (pooled) {
+                bufferPool.release(buffer);
+            }
+        }
+    }
+}
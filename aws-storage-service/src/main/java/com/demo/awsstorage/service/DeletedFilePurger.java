@@ -0,0 +1,159 @@
+package com.demo.awsstorage.service;
+
+import static com.demo.awsstorage.constant.Logging.FAILED_OBJECT_COUNT;
+import static com.demo.awsstorage.constant.Logging.FILE_COUNT;
+import static com.demo.awsstorage.constant.Logging.FILE_ID;
+import static com.demo.awsstorage.constant.Logging.TIME_TAKEN_IN_MILLI_SECONDS;
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import com.demo.awsstorage.configuration.BulkDeleteProperties;
+import com.demo.awsstorage.model.ResourceMetadata;
+import com.demo.awsstorage.model.UploadStatus;
+import com.demo.awsstorage.repository.FileMetadataRepository;
+import com.demo.awsstorage.repository.UploadPartRepository;
+import com.demo.filestoresdk.service.MinioStoreService;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StopWatch;
+
+/**
+ * Removes the content and the rows of files marked deleted by {@link FileService#bulkDelete}.
+ * Every batch removes the objects no other file references with concurrent multi-object
+ * deletes, then the rows in one statement. References are checked in the same transaction and
+ * under the same locks as deduplication adopts an object, so no file can be made to point at an
+ * object being removed. Rows whose object couldn't be removed stay marked and are retried by the
+ * next run. Runs of several instances may overlap, removing twice is harmless.
+ */
+@Slf4j
+@Component
+public class DeletedFilePurger {
+
+    private final FileMetadataRepository fileMetadataRepository;
+    private final UploadPartRepository uploadPartRepository;
+    private final MinioStoreService minioStoreService;
+    private final BulkDeleteProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter purgedFiles;
+    private final Counter removedObjects;
+    private final Counter failedObjects;
+
+    public DeletedFilePurger(FileMetadataRepository fileMetadataRepository,
+        UploadPartRepository uploadPartRepository, MinioStoreService minioStoreService,
+        BulkDeleteProperties properties, TransactionTemplate transactionTemplate,
+        MeterRegistry meterRegistry) {
+        this.fileMetadataRepository = fileMetadataRepository;
+        this.uploadPartRepository = uploadPartRepository;
+        this.minioStoreService = minioStoreService;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.purgedFiles = Counter.builder("storage.bulk-delete.files")
+            .description("Deleted files whose content and metadata have been removed")
+            .register(meterRegistry);
+        this.removedObjects = Counter.builder("storage.bulk-delete.objects")
+            .description("Objects removed for deleted files")
+            .register(meterRegistry);
+        this.failedObjects = Counter.builder("storage.bulk-delete.failures")
+            .description("Objects of deleted files which couldn't be removed and are retried")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${bulk-delete.interval:PT10S}",
+        fixedDelayString = "${bulk-delete.interval:PT10S}")
+    public void purge() {
+        var lastResourceId = "";
+        List<ResourceMetadata> batch;
+        do {
+            batch = fileMetadataRepository.findDeletedAfter(lastResourceId,
+                PageRequest.ofSize(properties.getBatchSize()));
+            if (batch.isEmpty()) {
+                return;
+            }
+            var deletedFiles = batch;
+            try {
+                abortUploads(deletedFiles);
+                transactionTemplate.executeWithoutResult(status -> purge(deletedFiles));
+            } catch (Exception ex) {
+                log.error("Failed to purge {} deleted files", batch.size(), ex);
+                return;
+            }
+            lastResourceId = batch.get(batch.size() - 1).getResourceId();
+        } while (batch.size() == properties.getBatchSize());
+    }
+
+    private void purge(List<ResourceMetadata> batch) {
+        var stopWatch = new StopWatch();
+        stopWatch.start();
+
+        var storageIds = batch.stream()
+            .map(ResourceMetadata::getStorageId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        // objects shared with deduplicated files which weren't deleted are kept
+        var referenced = new HashSet<String>();
+        for (var storageIdBatch : Lists.partition(storageIds, 1000)) {
+            fileMetadataRepository.lockByStorageIdIn(storageIdBatch);
+            referenced.addAll(fileMetadataRepository.findReferencedStorageIds(storageIdBatch));
+        }
+        var objectNames = storageIds.stream()
+            .filter(storageId -> !referenced.contains(storageId))
+            .map(storageId -> FileService.MINIO_FILE_SEPARATOR + storageId)
+            .toList();
+        var failed = new HashSet<>(minioStoreService.removeObjectsFromBucket(
+            minioStoreService.getBucketName(), objectNames));
+
+        var purgeable = batch.stream()
+            .filter(fileMetadata -> fileMetadata.getStorageId() == null
+                || !failed.contains(FileService.getStoragePath(fileMetadata)))
+            .map(ResourceMetadata::getResourceId)
+            .toList();
+        var purged = 0;
+        for (var fileIds : Lists.partition(purgeable, 1000)) {
+            purged += fileMetadataRepository.purgeDeleted(fileIds);
+        }
+
+        removedObjects.increment(objectNames.size() - failed.size());
+        failedObjects.increment(failed.size());
+        purgedFiles.increment(purged);
+        stopWatch.stop();
+        log.info("Deleted files purged {} {} {}",
+            keyValue(FILE_COUNT, purged),
+            keyValue(FAILED_OBJECT_COUNT, failed.size()),
+            keyValue(TIME_TAKEN_IN_MILLI_SECONDS, stopWatch.getTotalTimeMillis() + " ms"));
+    }
+
+    /**
+     * Aborts the resumable uploads of deleted files which were still in progress.
+     */
+    private void abortUploads(List<ResourceMetadata> batch) {
+        var uploads = batch.stream()
+            .filter(fileMetadata -> fileMetadata.getUploadStatus() == UploadStatus.PENDING
+                && StringUtils.isNotBlank(fileMetadata.getUploadId()))
+            .toList();
+        for (var fileMetadata : uploads) {
+            try {
+                minioStoreService.abortMultipartUpload(minioStoreService.getBucketName(),
+                    FileService.getStoragePath(fileMetadata), fileMetadata.getUploadId());
+            } catch (Exception ex) {
+                // left to the reconciliation, which aborts stale uploads nobody tracks
+                log.warn("Failed to abort the upload of a deleted file {}",
+                    keyValue(FILE_ID, fileMetadata.getResourceId()), ex);
+            }
+        }
+        if (!uploads.isEmpty()) {
+            uploadPartRepository.deleteByResourceIdIn(uploads.stream()
+                .map(ResourceMetadata::getResourceId)
+                .toList());
+        }
+    }
+}
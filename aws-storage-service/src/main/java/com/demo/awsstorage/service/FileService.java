@@ -1,19 +1,24 @@
 package com.demo.awsstorage.service;
 
 import static com.demo.awsstorage.constant.Logging.CONTENT_TYPE;
+import static com.demo.awsstorage.constant.Logging.FILE_COUNT;
 import static com.demo.awsstorage.constant.Logging.FILE_ID;
 import static com.demo.awsstorage.constant.Logging.NAME;
+import static com.demo.awsstorage.constant.Logging.OFFSET;
 import static com.demo.awsstorage.constant.Logging.SIZE_IN_BYTES;
+import static com.demo.awsstorage.constant.Logging.STORAGE_ID;
 import static com.demo.awsstorage.constant.Logging.TIME_TAKEN_IN_MILLI_SECONDS;
 import static com.demo.awsstorage.constant.Logging.UPLOAD_STATUS;
 import static net.logstash.logback.argument.StructuredArguments.keyValue;
 import static org.apache.commons.lang3.ObjectUtils.isNotEmpty;
 import static org.apache.commons.lang3.Validate.notEmpty;
 
+import com.demo.awsstorage.configuration.DeduplicationProperties;
 import com.demo.awsstorage.dto.DownloadlinkDto;
 import com.demo.awsstorage.dto.FileMetadataDto;
 import com.demo.awsstorage.dto.FileStatDto;
 import com.demo.awsstorage.dto.ResourcePatchDto;
+import com.demo.awsstorage.exception.FileStorageArgumentException;
 import com.demo.awsstorage.exception.FileStorageConflictException;
 import com.demo.awsstorage.exception.FileStorageException;
 import com.demo.awsstorage.exception.FileStorageIOException;
@@ -25,31 +30,37 @@ import com.demo.awsstorage.model.ResourceMetadata;
 import com.demo.awsstorage.model.UploadStatus;
 import com.demo.awsstorage.repository.FileMetadataRepository;
 import com.demo.filestoresdk.model.DownloadFile;
+import com.demo.filestoresdk.model.FileStoreDto;
+import com.demo.filestoresdk.service.ContentTypeDetector;
 import com.demo.filestoresdk.service.MinioStoreService;
 import com.demo.reststarter.exception.BadRequestRestException;
 import com.demo.reststarter.exception.InternalErrorException;
+import com.google.common.collect.Lists;
 import io.minio.StatObjectResponse;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.text.MessageFormat;
-import java.util.HashMap;
+import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.tika.Tika;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StopWatch;
 import org.springframework.validation.annotation.Validated;
 
@@ -63,17 +74,18 @@ public class FileService {
     private static final String FORMAT_ZIP = "application/zip";
     private final FileMetadataRepository fileMetadataRepository;
     private final MinioStoreService minioStoreService;
-    private final Tika tika = new Tika();
+    private final ContentTypeDetector contentTypeDetector;
+    private final BulkZipWriter bulkZipWriter;
+    private final DeduplicationProperties deduplicationProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public static String getStoragePath(ResourceMetadata fileMetadata) {
+        return MINIO_FILE_SEPARATOR + fileMetadata.getStorageId();
+    }
 
     public String uploadFile(@Valid FileMetadataDto fileMetadataDto, final InputStream is) {
         StopWatch stopWatch = new StopWatch();
         try {
-            String fileId = fileMetadataDto.getResourceId();
-            if (StringUtils.isNotBlank(fileId) && fileMetadataRepository.existsById(fileId)) {
-                throw new FileStorageConflictException(
-                    MessageFormat.format("File ID {0} is already in use", fileId));
-            }
-
             stopWatch.start();
             ResourceMetadata fileMetadata = addMetadataAndStoreFile(fileMetadataDto, is);
             stopWatch.stop();
@@ -101,7 +113,7 @@ public class FileService {
         try {
             stopWatch.start();
             DownloadFile file = minioStoreService.getFileFromStorage(
-                minioStoreService.getBucketName(), MINIO_FILE_SEPARATOR);
+                minioStoreService.getBucketName(), getStoragePath(fileMetadata));
             stopWatch.stop();
 
             FileAndMetadata fileAndMetadata = FileAndMetadata.builder()
@@ -128,41 +140,59 @@ public class FileService {
         }
     }
 
-    public FileAndMetadata bulkDownload(final List<ResourceMetadata> fileMetadataList,
-        final String outputFileName) {
-        final StopWatch stopWatch = new StopWatch();
-        final var bulkFileMetadata = ResourceMetadata.builder()
-            .name(outputFileName)
-            .contentType(tika.detect(outputFileName))
-            .build();
+    /**
+     * Links the local copy of the file content for sendfile, see
+     * {@link MinioStoreService#linkLocalCopy}.
+     *
+     * @return the link or empty if the content isn't staged locally or no longer has the ETag
+     */
+    public Optional<Path> linkLocalCopy(final ResourceMetadata fileMetadata, final String etag) {
+        return minioStoreService.linkLocalCopy(minioStoreService.getBucketName(),
+            getStoragePath(fileMetadata), etag);
+    }
 
+    public InputStream downloadRangeByFileId(final ResourceMetadata fileMetadata,
+        final long offset, final long length, final String etag) {
         try {
-            var fileMetadataMap = new HashMap<String, ResourceMetadata>();
-            for (var fileMetadata : fileMetadataList) {
-                fileMetadataMap.put(fileMetadata.getResourceId(), fileMetadata);
-            }
+            InputStream inputStream = minioStoreService.getFileRangeFromStorage(
+                minioStoreService.getBucketName(), getStoragePath(fileMetadata), offset, length,
+                etag);
 
-            stopWatch.start();
-            // Step 01: download & package
-            final byte[] bulkFile;
-            if (bulkFileMetadata.getContentType().equals(FORMAT_ZIP)) {
-                bulkFile = downloadAndZip(fileMetadataMap);
-            } else {
-                throw new FileStorageException(
-                    "Unsupported package-type (sourceId: " + bulkFileMetadata.getSourceId() +
-                        ", contentType: " + bulkFileMetadata.getContentType() + ", name: "
-                        + bulkFileMetadata.getName() + ")");
-            }
+            log.debug("Successfully opened the file range {} {} {}",
+                keyValue(FILE_ID, fileMetadata.getResourceId()),
+                keyValue(OFFSET, offset),
+                keyValue(SIZE_IN_BYTES, length));
+
+            return inputStream;
+        } catch (Exception ex) {
+            log.error("Failed to download the file range {} {}",
+                keyValue(FILE_ID, fileMetadata.getResourceId()),
+                keyValue(OFFSET, offset));
+            throw ex;
+        }
+    }
 
+    /**
+     * Streams the bulk archive directly into the given output stream (e.g. the HTTP response).
+     * Every object is piped from the storage into its zip entry, so heap usage is bounded by the
+     * stream buffer and the prefetch memory budget regardless of the archive size, and the first
+     * bytes are sent as soon as the first object is available.
+     */
+    public void bulkDownload(final List<ResourceMetadata> fileMetadataList,
+        final String outputFileName, final OutputStream outputStream) {
+        final StopWatch stopWatch = new StopWatch();
+        try {
+            stopWatch.start();
+            writeZip(fileMetadataList, outputStream);
             stopWatch.stop();
 
-            return getFileAndMetadata(bulkFileMetadata, bulkFile);
-        } catch (FileUploadStatusException ex) {
-            throw ex;
+            log.debug("Successfully streamed bulk file {} {}",
+                keyValue(NAME, outputFileName),
+                keyValue(TIME_TAKEN_IN_MILLI_SECONDS, stopWatch.getTotalTimeMillis() + " ms"));
         } catch (RuntimeException ex) {
-            log.error("Failed to download bulk files {} {}", fileMetadataList.stream()
+            log.error("Failed to stream bulk files {} {}", fileMetadataList.stream()
                 .map(ResourceMetadata::getResourceId)
-                .collect(Collectors.toSet()), keyValue(NAME, bulkFileMetadata.getName()));
+                .collect(Collectors.toSet()), keyValue(NAME, outputFileName));
             throw ex;
         } finally {
             if (stopWatch.isRunning()) {
@@ -171,30 +201,36 @@ public class FileService {
         }
     }
 
-    private FileAndMetadata getFileAndMetadata(final ResourceMetadata bulkFileMetadata,
-        final byte[] bulkFile) {
-        try (var inputStream = new ByteArrayInputStream(bulkFile)) {
-            bulkFileMetadata.setSizeInBytes(bulkFile.length);
-            return FileAndMetadata.builder()
-                .inputStream(inputStream)
-                .fileMetadata(bulkFileMetadata)
-                .build();
-        } catch (IOException ex) {
-            throw new FileStorageException("IO Exception for resource id: {}", ex,
-                bulkFileMetadata.getSourceId());
+    public ResourceMetadata createBulkFileMetadata(final String outputFileName) {
+        final var bulkFileMetadata = ResourceMetadata.builder()
+            .name(outputFileName)
+            .contentType(contentTypeDetector.detect(outputFileName))
+            .build();
+        if (!FORMAT_ZIP.equals(bulkFileMetadata.getContentType())) {
+            throw new FileStorageException(
+                "Unsupported package-type (sourceId: " + bulkFileMetadata.getSourceId() +
+                    ", contentType: " + bulkFileMetadata.getContentType() + ", name: "
+                    + bulkFileMetadata.getName() + ")");
         }
+        return bulkFileMetadata;
     }
 
     public void deleteByFileId(ResourceMetadata fileMetadata) {
         StopWatch stopWatch = new StopWatch();
         try {
             stopWatch.start();
-            minioStoreService.removeObjectFromBucket(minioStoreService.getBucketName(),
-                MINIO_FILE_SEPARATOR);
+            // the object may be shared by deduplicated files, only the last reference removes it.
+            // References are counted under the lock deduplication takes before adopting an object
+            transactionTemplate.executeWithoutResult(status -> {
+                fileMetadataRepository.lockByStorageIdIn(List.of(fileMetadata.getStorageId()));
+                fileMetadataRepository.deleteById(fileMetadata.getResourceId());
+                if (fileMetadataRepository.countByStorageId(fileMetadata.getStorageId()) == 0) {
+                    minioStoreService.removeObjectFromBucket(minioStoreService.getBucketName(),
+                        getStoragePath(fileMetadata));
+                }
+            });
             stopWatch.stop();
 
-            fileMetadataRepository.deleteById(fileMetadata.getResourceId());
-
             log.debug("Successfully deleted the file {} {} {}",
                 keyValue(FILE_ID, fileMetadata.getResourceId()),
                 keyValue(CONTENT_TYPE, fileMetadata.getContentType()),
@@ -214,11 +250,31 @@ public class FileService {
         }
     }
 
+    /**
+     * Marks the files deleted and returns without touching the storage, their content and rows
+     * are removed in the background by {@link DeletedFilePurger}. Marked files aren't found
+     * anymore.
+     *
+     * @return the number of files marked, unknown and already deleted ids aren't counted
+     */
+    @Transactional
+    public int bulkDelete(List<String> fileIds) {
+        var deletedOn = OffsetDateTime.now();
+        var deletedCount = 0;
+        // keeps the IN lists within the limits of all databases
+        for (var batch : Lists.partition(fileIds.stream().distinct().toList(), 1000)) {
+            deletedCount += fileMetadataRepository.markDeleted(batch, deletedOn);
+        }
+        log.debug("Files marked deleted {}", keyValue(FILE_COUNT, deletedCount));
+        return deletedCount;
+    }
+
     public DownloadlinkDto presignedGetObject(ResourceMetadata fileMetadata) {
         try {
 
             String uri = minioStoreService
-                .presignedGetObjectWithOutFileScanCheck(MINIO_FILE_SEPARATOR, null, 100000);
+                .presignedGetObjectWithOutFileScanCheck(getStoragePath(fileMetadata), null,
+                    100000);
 
             log.debug("Successfully generated presigned link for the file {} {}",
                 keyValue(FILE_ID, fileMetadata.getResourceId()),
@@ -237,7 +293,8 @@ public class FileService {
     }
 
     public FileStatDto getFileStat(ResourceMetadata fileMetadata) {
-        StatObjectResponse statObjectResponse = minioStoreService.getFileStat(MINIO_FILE_SEPARATOR);
+        StatObjectResponse statObjectResponse = minioStoreService.getFileStat(
+            getStoragePath(fileMetadata));
         return FileStatDto.builder()
             .etag(statObjectResponse.etag())
             .length(statObjectResponse.size())
@@ -274,26 +331,75 @@ public class FileService {
 
     private ResourceMetadata addMetadataAndStoreFile(FileMetadataDto fileMetadataDto,
         final InputStream inputStream) {
-        String contentType = tika.detect(fileMetadataDto.getName());
+        ResourceMetadata fileMetadata = createPendingMetadata(fileMetadataDto);
+
+        // the digest is computed while the bytes are streamed to the storage
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        FileStoreDto fileStoreDto = storeFile(new DigestInputStream(inputStream, digest),
+            fileMetadata);
+        return completeUpload(fileMetadata, Hex.encodeHexString(digest.digest()), fileStoreDto);
+    }
+
+    /**
+     * Saves the metadata of a file whose content is about to be stored.
+     */
+    public ResourceMetadata createPendingMetadata(@Valid FileMetadataDto fileMetadataDto) {
+        String fileId = fileMetadataDto.getResourceId();
+        if (StringUtils.isNotBlank(fileId) && fileMetadataRepository.existsById(fileId)) {
+            throw new FileStorageConflictException(
+                MessageFormat.format("File ID {0} is already in use", fileId));
+        }
+        String contentType = contentTypeDetector.detect(fileMetadataDto.getName());
         ResourceMetadata fileMetadata = convertToMetadataEntity(fileMetadataDto, contentType);
         try {
-            fileMetadata = fileMetadataRepository.save(fileMetadata);
+            return fileMetadataRepository.save(fileMetadata);
         } catch (DataIntegrityViolationException e) {
             throw new FileStorageConflictException(
                 String.format("File with id %s already exists", fileMetadataDto.getResourceId()));
         }
+    }
 
-        storeFile(inputStream, fileMetadata);
-        updateActualFileSize(fileMetadata);
-        updateUploadStatus(fileMetadata.getResourceId(), UploadStatus.COMPLETED);
+    /**
+     * Completes the metadata of a file whose content has been stored, after checking the hash
+     * of the content against the expected one.
+     */
+    public ResourceMetadata completeUpload(ResourceMetadata fileMetadata, String hash,
+        FileStoreDto fileStoreDto) {
+        verifyHash(fileMetadata, hash);
+
+        fileMetadata.setHash(hash);
+        fileMetadata.setHashVerified(true);
+        fileMetadata.setSizeInBytes(fileStoreDto.getFileSize());
+        fileMetadata.setEtag(fileStoreDto.getEtag());
+        fileMetadata.setContentType(fileStoreDto.getContentType());
+        fileMetadata.setUploadStatus(UploadStatus.COMPLETED);
+        if (!deduplicationProperties.isEnabled()) {
+            return fileMetadataRepository.save(fileMetadata);
+        }
 
-        return fileMetadata;
+        String uploadedStorageId = fileMetadata.getStorageId();
+        ResourceMetadata savedMetadata = transactionTemplate.execute(status -> {
+            deduplicate(fileMetadata);
+            return fileMetadataRepository.save(fileMetadata);
+        });
+        if (!uploadedStorageId.equals(savedMetadata.getStorageId())) {
+            removeDuplicate(savedMetadata, uploadedStorageId);
+        }
+        return savedMetadata;
+    }
+
+    /**
+     * Removes the metadata of a file whose content couldn't be stored.
+     */
+    public void discardPendingMetadata(ResourceMetadata fileMetadata) {
+        fileMetadataRepository.delete(fileMetadata);
     }
 
-    private void storeFile(final InputStream inputStream, ResourceMetadata fileMetadata) {
-        String storagePath = MINIO_FILE_SEPARATOR;
+    private FileStoreDto storeFile(final InputStream inputStream, ResourceMetadata fileMetadata) {
+        String storagePath = getStoragePath(fileMetadata);
         try {
-            uploadFile(inputStream, fileMetadata.getSizeInBytes(), storagePath);
+            return uploadFile(inputStream, fileMetadata.getSizeInBytes(), storagePath,
+                fileMetadata.getName());
         } catch (BadRequestRestException | FileStorageConflictException e) {
             fileMetadataRepository.delete(fileMetadata);
             throw e;
@@ -306,16 +412,111 @@ public class FileService {
         }
     }
 
-    private void updateActualFileSize(final ResourceMetadata fileMetadata) {
-        var fileId = fileMetadata.getResourceId();
-        var size = getFileStat(fileMetadata).getLength();
-        fileMetadata.setSizeInBytes(size);
-        fileMetadataRepository.save(fileMetadata);
+    /**
+     * Points the metadata at an already stored object with the same content. Only hashes the
+     * service computed itself are matched, a hash declared by a client could claim content it
+     * never stored. The files sharing that object stay locked until the metadata is saved, so a
+     * concurrent delete can't remove the object in between, and an object whose files were all
+     * deleted meanwhile isn't adopted.
+     */
+    private void deduplicate(ResourceMetadata fileMetadata) {
+        fileMetadataRepository.findFirstByHashAndHashVerifiedTrueAndUploadStatusAndNodeType(
+                fileMetadata.getHash(), UploadStatus.COMPLETED, NodeType.FILE)
+            .filter(existing -> !existing.getStorageId().equals(fileMetadata.getStorageId()))
+            .filter(existing -> !fileMetadataRepository
+                .lockByStorageIdIn(List.of(existing.getStorageId())).isEmpty())
+            .ifPresent(existing -> {
+                fileMetadata.setStorageId(existing.getStorageId());
+                fileMetadata.setEtag(existing.getEtag());
+                log.debug("Deduplicated the file {} {}",
+                    keyValue(FILE_ID, fileMetadata.getResourceId()),
+                    keyValue(STORAGE_ID, existing.getStorageId()));
+            });
+    }
+
+    /**
+     * Removes the copy uploaded for a file which now shares an object stored before. Nothing
+     * else references the copy, a failure only leaves an orphan for the reconciliation.
+     */
+    private void removeDuplicate(ResourceMetadata fileMetadata, String uploadedStorageId) {
+        try {
+            minioStoreService.removeObjectFromBucket(minioStoreService.getBucketName(),
+                MINIO_FILE_SEPARATOR + uploadedStorageId);
+        } catch (Exception ex) {
+            log.warn("Failed to remove the duplicate of the file {} {}",
+                keyValue(FILE_ID, fileMetadata.getResourceId()),
+                keyValue(STORAGE_ID, uploadedStorageId), ex);
+        }
+    }
+
+    /**
+     * Creates a file which shares already stored content with the given SHA-256, so the client
+     * can skip the transfer. The content hash acts as proof of possession here, which is why this
+     * is only available in deduplication mode.
+     */
+    public String createFromExistingContent(@Valid FileMetadataDto fileMetadataDto) {
+        if (!deduplicationProperties.isEnabled()) {
+            throw new FileStorageArgumentException("Deduplication is disabled");
+        }
+        if (StringUtils.isBlank(fileMetadataDto.getHash())) {
+            throw new FileStorageArgumentException("SHA-256 hash of the file is required");
+        }
+        String fileId = fileMetadataDto.getResourceId();
+        if (StringUtils.isNotBlank(fileId) && fileMetadataRepository.existsById(fileId)) {
+            throw new FileStorageConflictException(
+                MessageFormat.format("File ID {0} is already in use", fileId));
+        }
+
+        ResourceMetadata newMetadata = convertToMetadataEntity(fileMetadataDto,
+            contentTypeDetector.detect(fileMetadataDto.getName()));
+        ResourceMetadata fileMetadata;
+        try {
+            // the files sharing the content stay locked until the new one is saved
+            fileMetadata = transactionTemplate.execute(status -> {
+                ResourceMetadata existing = fileMetadataRepository
+                    .findFirstByHashAndHashVerifiedTrueAndUploadStatusAndNodeType(
+                        fileMetadataDto.getHash().toLowerCase(), UploadStatus.COMPLETED,
+                        NodeType.FILE)
+                    .filter(candidate -> !fileMetadataRepository
+                        .lockByStorageIdIn(List.of(candidate.getStorageId())).isEmpty())
+                    .orElseThrow(() -> new FileStorageNotFoundException(String.format(
+                        "No content available for hash %s", fileMetadataDto.getHash())));
+                newMetadata.setStorageId(existing.getStorageId());
+                newMetadata.setHash(existing.getHash());
+                newMetadata.setHashVerified(true);
+                newMetadata.setEtag(existing.getEtag());
+                newMetadata.setSizeInBytes(existing.getSizeInBytes());
+                newMetadata.setUploadStatus(UploadStatus.COMPLETED);
+                return fileMetadataRepository.save(newMetadata);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new FileStorageConflictException(
+                String.format("File with id %s already exists", fileMetadataDto.getResourceId()));
+        }
+
+        log.debug("Created the file from existing content {} {}",
+            keyValue(FILE_ID, fileMetadata.getResourceId()),
+            keyValue(STORAGE_ID, fileMetadata.getStorageId()));
+        return fileMetadata.getResourceId();
+    }
+
+    private void verifyHash(ResourceMetadata fileMetadata, String computedHash) {
+        String expectedHash = fileMetadata.getHash();
+        if (StringUtils.isBlank(expectedHash) || expectedHash.equalsIgnoreCase(computedHash)) {
+            return;
+        }
+        minioStoreService.removeObjectFromBucket(minioStoreService.getBucketName(),
+            getStoragePath(fileMetadata));
+        fileMetadataRepository.delete(fileMetadata);
+        throw new FileStorageArgumentException(
+            "SHA-256 mismatch for file (fileId: " + fileMetadata.getResourceId() + ", expected: "
+                + expectedHash + ", computed: " + computedHash + ")");
     }
 
-    private void uploadFile(InputStream inputStream, Long fileSize, String storagePath) {
-        minioStoreService.putObjectToStorage(minioStoreService.getBucketName(), inputStream,
-            fileSize, storagePath);
+    private FileStoreDto uploadFile(InputStream inputStream, Long fileSize, String storagePath,
+        String fileName) {
+        return minioStoreService.putObjectToStorage(minioStoreService.getBucketName(),
+            inputStream, fileSize, storagePath, fileName);
     }
 
     ResourceMetadata convertToMetadataEntity(FileMetadataDto fileMetadataDto, String contentType) {
@@ -324,10 +525,9 @@ public class FileService {
         if (StringUtils.isBlank(fileMetadataDto.getResourceId())) {
             fileMetadataBuilder = fileMetadataBuilder.resourceId(UUID.randomUUID().toString());
         }
-        if (StringUtils.isBlank(fileMetadataDto.getStorageId())) {
-            fileMetadataBuilder = fileMetadataBuilder.storageId(UUID.randomUUID().toString());
-        }
+        // the object key is never taken from the client, which could point it at another file
         return fileMetadataBuilder
+            .storageId(UUID.randomUUID().toString())
             .contentType(contentType)
             .build();
     }
@@ -365,24 +565,15 @@ public class FileService {
         }
     }
 
-    private byte[] downloadAndZip(final Map<String, ResourceMetadata> resourceMetadataMap) {
-        try (var byteArrayOutputStream = new ByteArrayOutputStream();
-            var zipOutputStream = new ZipOutputStream(byteArrayOutputStream)) {
-
-            DownloadFile file;
-            for (ResourceMetadata fileMetadata : resourceMetadataMap.values()) {
-                file = minioStoreService.getFileFromStorage(minioStoreService.getBucketName(),
-                    MINIO_FILE_SEPARATOR);
-
-                zipOutputStream.putNextEntry(new ZipEntry(fileMetadata.getName()));
-                zipOutputStream.write(file.getInputStream().readAllBytes());
-                zipOutputStream.closeEntry();
-            }
-            zipOutputStream.finish();
-            return byteArrayOutputStream.toByteArray();
+    private void writeZip(final List<ResourceMetadata> fileMetadataList,
+        final OutputStream outputStream) {
+        try {
+            bulkZipWriter.write(fileMetadataList, outputStream);
         } catch (IOException e) {
             throw new FileStorageIOException(
-                "Error while zipping file with fileIds: " + resourceMetadataMap.keySet() + ")", e);
+                "Error while zipping file with fileIds: " + fileMetadataList.stream()
+                    .map(ResourceMetadata::getResourceId)
+                    .toList() + ")", e);
         }
     }
 }
@@ -0,0 +1,127 @@
+package com.demo.awsstorage.service;
+
+import static com.demo.awsstorage.constant.Logging.CONTENT_TYPE;
+import static com.demo.awsstorage.constant.Logging.FILE_ID;
+import static com.demo.awsstorage.constant.Logging.OFFSET;
+import static com.demo.awsstorage.constant.Logging.SIZE_IN_BYTES;
+import static com.demo.awsstorage.constant.Logging.TIME_TAKEN_IN_MILLI_SECONDS;
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import com.demo.awsstorage.dto.FileMetadataDto;
+import com.demo.awsstorage.dto.FileStatDto;
+import com.demo.awsstorage.exception.FileStorageIOException;
+import com.demo.awsstorage.model.ResourceMetadata;
+import com.demo.filestoresdk.service.ReactiveStoreService;
+import com.demo.reststarter.exception.InternalErrorException;
+import java.security.MessageDigest;
+import java.util.concurrent.Callable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link FileService} for the WebFlux stack. Content is streamed between
+ * the client and the storage by {@link ReactiveStoreService}, while the metadata operations of
+ * {@link FileService} use blocking JPA calls and run on the bounded elastic scheduler.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveFileService {
+
+    private final FileService fileService;
+    private final ReactiveStoreService reactiveStoreService;
+
+    /**
+     * Stores the content as it arrives, computing its SHA-256 on the way. The content type is
+     * detected from the file name, as the content isn't buffered for inspection.
+     */
+    public Mono<String> uploadFile(FileMetadataDto fileMetadataDto, Flux<DataBuffer> content) {
+        return blocking(() -> fileService.createPendingMetadata(fileMetadataDto))
+            .flatMap(fileMetadata -> {
+                MessageDigest digest = DigestUtils.getSha256Digest();
+                return reactiveStoreService.putObjectToStorage(
+                        reactiveStoreService.getBucketName(),
+                        content.doOnNext(buffer -> update(digest, buffer)),
+                        FileService.getStoragePath(fileMetadata), fileMetadata.getContentType())
+                    .onErrorResume(ex -> blocking(() -> {
+                        fileService.discardPendingMetadata(fileMetadata);
+                        return fileMetadata;
+                    }).then(Mono.error(toUploadException(ex, fileMetadata))))
+                    .flatMap(fileStoreDto -> blocking(() -> fileService.completeUpload(
+                        fileMetadata, Hex.encodeHexString(digest.digest()), fileStoreDto)));
+            })
+            .elapsed()
+            .map(uploaded -> {
+                var fileMetadata = uploaded.getT2();
+                log.debug("Successfully uploaded the file {} {} {} {}",
+                    keyValue(FILE_ID, fileMetadata.getResourceId()),
+                    keyValue(CONTENT_TYPE, fileMetadata.getContentType()),
+                    keyValue(SIZE_IN_BYTES, fileMetadata.getSizeInBytes()),
+                    keyValue(TIME_TAKEN_IN_MILLI_SECONDS, uploaded.getT1() + " ms"));
+                return fileMetadata.getResourceId();
+            })
+            .doOnError(ex -> log.error("Failed to upload the file {}",
+                keyValue(FILE_ID, fileMetadataDto.getResourceId()), ex));
+    }
+
+    public Mono<ResourceMetadata> getFileMetadataById(String fileId) {
+        return blocking(() -> fileService.getFileMetadataById(fileId));
+    }
+
+    public Mono<FileStatDto> getFileStat(ResourceMetadata fileMetadata) {
+        return reactiveStoreService.getFileStat(reactiveStoreService.getBucketName(),
+                FileService.getStoragePath(fileMetadata))
+            .map(statObjectResponse -> FileStatDto.builder()
+                .etag(statObjectResponse.etag())
+                .length(statObjectResponse.size())
+                .contentType(statObjectResponse.contentType())
+                .scanStatus(fileMetadata.getScanStatus())
+                .build());
+    }
+
+    public Flux<DataBuffer> downloadByFileId(ResourceMetadata fileMetadata) {
+        return reactiveStoreService.getFileFromStorage(reactiveStoreService.getBucketName(),
+                FileService.getStoragePath(fileMetadata))
+            .doOnError(ex -> log.error("Failed to download the file {}",
+                keyValue(FILE_ID, fileMetadata.getResourceId())));
+    }
+
+    public Flux<DataBuffer> downloadRangeByFileId(ResourceMetadata fileMetadata, long offset,
+        long length, String etag) {
+        return reactiveStoreService.getFileRangeFromStorage(reactiveStoreService.getBucketName(),
+                FileService.getStoragePath(fileMetadata), offset, length, etag)
+            .doOnError(ex -> log.error("Failed to download the file range {} {}",
+                keyValue(FILE_ID, fileMetadata.getResourceId()),
+                keyValue(OFFSET, offset)));
+    }
+
+    private static void update(MessageDigest digest, DataBuffer buffer) {
+        try (var byteBuffers = buffer.readableByteBuffers()) {
+            byteBuffers.forEachRemaining(digest::update);
+        }
+    }
+
+    private static Throwable toUploadException(Throwable ex, ResourceMetadata fileMetadata) {
+        if (ex instanceof InternalErrorException) {
+            return new FileStorageIOException(
+                "Error while uploading file (sourceId: " + fileMetadata.getSourceId() +
+                    ", fileId: " + fileMetadata.getResourceId() + ", name: "
+                    + fileMetadata.getName() + ")", ex);
+        }
+        return ex;
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> callable) {
+        return Mono.fromCallable(callable).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,297 @@
+package com.demo.awsstorage.service;
+
+import static com.demo.awsstorage.constant.Logging.FILE_COUNT;
+import static com.demo.awsstorage.constant.Logging.FILE_ID;
+import static com.demo.awsstorage.constant.Logging.LAST_MODIFIED;
+import static com.demo.awsstorage.constant.Logging.OBJECT_NAME;
+import static com.demo.awsstorage.constant.Logging.STORAGE_ID;
+import static com.demo.awsstorage.constant.Logging.TIME_TAKEN_IN_MILLI_SECONDS;
+import static com.demo.awsstorage.constant.Logging.UPLOAD_ID;
+import static com.demo.awsstorage.service.FileService.MINIO_FILE_SEPARATOR;
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import com.demo.awsstorage.configuration.ReconciliationProperties;
+import com.demo.awsstorage.model.NodeType;
+import com.demo.awsstorage.model.ReconciliationReport;
+import com.demo.awsstorage.model.ResourceMetadata;
+import com.demo.awsstorage.model.StorageReference;
+import com.demo.awsstorage.model.UploadStatus;
+import com.demo.awsstorage.repository.FileMetadataRepository;
+import com.demo.awsstorage.repository.UploadPartRepository;
+import com.demo.filestoresdk.model.IncompleteUpload;
+import com.demo.filestoresdk.model.ObjectSummary;
+import com.demo.filestoresdk.service.MinioStoreService;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StopWatch;
+
+/**
+ * Reconciles the bucket with the file metadata, which drift apart when an upload fails half way
+ * or a delete removes the object but not the row. Stale PENDING files and multipart uploads
+ * nobody completes are swept, then the sorted object listing is merge-joined with the storage
+ * ids read in keyset pages, so memory is bounded by one page on either side whatever the size
+ * of the bucket. Unless {@code fix} is set, findings are only reported.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReconciliationService {
+
+    private final MinioStoreService minioStoreService;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final UploadPartRepository uploadPartRepository;
+    private final FileService fileService;
+    private final ReconciliationProperties properties;
+
+    public ReconciliationReport reconcile() {
+        var report = new ReconciliationReport();
+        report.setFixed(properties.isFix());
+        var stopWatch = new StopWatch();
+        stopWatch.start();
+
+        sweepPendingFiles(report);
+        sweepMultipartUploads(report);
+        reconcileObjects(report);
+
+        stopWatch.stop();
+        log.info("Reconciliation finished {} {}", report,
+            keyValue(TIME_TAKEN_IN_MILLI_SECONDS, stopWatch.getTotalTimeMillis() + " ms"));
+        return report;
+    }
+
+    /**
+     * Removes files which stayed PENDING longer than {@code pendingTimeout} together with their
+     * multipart upload, parts and any object stored for them.
+     */
+    private void sweepPendingFiles(ReconciliationReport report) {
+        var createdBefore = OffsetDateTime.now().minus(properties.getPendingTimeout());
+        var pageRequest = PageRequest.ofSize(properties.getPageSize());
+        var lastResourceId = "";
+        List<ResourceMetadata> page;
+        do {
+            page = fileMetadataRepository
+                .findByUploadStatusAndNodeTypeAndCreatedOnBeforeAndResourceIdGreaterThanOrderByResourceId(
+                    UploadStatus.PENDING, NodeType.FILE, createdBefore, lastResourceId,
+                    pageRequest);
+            for (var fileMetadata : page) {
+                report.setStalePendingFiles(report.getStalePendingFiles() + 1);
+                log.warn("Stale pending file {} {}",
+                    keyValue(FILE_ID, fileMetadata.getResourceId()),
+                    keyValue(STORAGE_ID, fileMetadata.getStorageId()));
+                if (properties.isFix()) {
+                    removePendingFile(fileMetadata, report);
+                }
+            }
+            if (!page.isEmpty()) {
+                lastResourceId = page.get(page.size() - 1).getResourceId();
+            }
+        } while (page.size() == properties.getPageSize());
+    }
+
+    private void removePendingFile(ResourceMetadata fileMetadata, ReconciliationReport report) {
+        try {
+            if (StringUtils.isNotBlank(fileMetadata.getUploadId())) {
+                abortQuietly(FileService.getStoragePath(fileMetadata), fileMetadata.getUploadId());
+                uploadPartRepository.deleteByResourceId(fileMetadata.getResourceId());
+            }
+            fileService.deleteByFileId(fileMetadata);
+        } catch (Exception ex) {
+            report.setFailures(report.getFailures() + 1);
+            log.error("Failed to remove the stale pending file {}",
+                keyValue(FILE_ID, fileMetadata.getResourceId()), ex);
+        }
+    }
+
+    /**
+     * Aborts multipart uploads initiated longer than {@code multipartUploadTimeout} ago which no
+     * file tracks, those of resumable uploads are left to the PENDING sweep.
+     */
+    private void sweepMultipartUploads(ReconciliationReport report) {
+        var initiatedBefore = OffsetDateTime.now().minus(properties.getMultipartUploadTimeout());
+        try (var uploads = minioStoreService.streamIncompleteUploads(
+            minioStoreService.getBucketName(), MINIO_FILE_SEPARATOR)) {
+            uploads
+                .filter(upload -> upload.getInitiated() != null
+                    && upload.getInitiated().toOffsetDateTime().isBefore(initiatedBefore))
+                .filter(upload -> !fileMetadataRepository.existsByUploadId(upload.getUploadId()))
+                .forEach(upload -> {
+                    report.setStaleMultipartUploads(report.getStaleMultipartUploads() + 1);
+                    log.warn("Stale multipart upload {} {}",
+                        keyValue(OBJECT_NAME, upload.getObjectName()),
+                        keyValue(UPLOAD_ID, upload.getUploadId()));
+                    if (properties.isFix() && !abortQuietly(upload)) {
+                        report.setFailures(report.getFailures() + 1);
+                    }
+                });
+        }
+    }
+
+    /**
+     * Walks the object listing and the storage ids in the same ascending order. An object
+     * without a file is an orphan, a completed file without an object is dangling. Both sides
+     * have to be sorted the same way, so a database collation which orders the storage ids
+     * differently from the bucket stops the run instead of reporting false findings.
+     */
+    private void reconcileObjects(ReconciliationReport report) {
+        var changedBefore = OffsetDateTime.now().minus(properties.getGracePeriod());
+        var orphans = new ArrayList<String>();
+        try (var objectStream = minioStoreService.streamObjects(
+            minioStoreService.getBucketName(), MINIO_FILE_SEPARATOR, true)) {
+            var objects = objectStream.iterator();
+            var references = new StorageReferenceIterator();
+            var object = next(objects);
+            var reference = next(references);
+            String lastObjectId = null;
+            while (object != null || reference != null) {
+                var objectId = object == null
+                    ? null
+                    : StringUtils.removeStart(object.getObjectName(), MINIO_FILE_SEPARATOR);
+                if (objectId != null) {
+                    checkOrder(lastObjectId, objectId);
+                }
+                int comparison = object == null ? 1
+                    : reference == null ? -1
+                        : objectId.compareTo(reference.getStorageId());
+                if (comparison < 0) {
+                    report.setScannedObjects(report.getScannedObjects() + 1);
+                    if (object.getLastModified() != null && object.getLastModified()
+                        .toOffsetDateTime().isBefore(changedBefore)) {
+                        addOrphan(object, orphans, report);
+                    }
+                    lastObjectId = objectId;
+                    object = next(objects);
+                } else if (comparison > 0) {
+                    if (reference.getCompletedCount() > 0 && reference.getUpdatedOn() != null
+                        && reference.getUpdatedOn().isBefore(changedBefore)) {
+                        removeDanglingFiles(reference, report);
+                    }
+                    reference = next(references);
+                } else {
+                    report.setScannedObjects(report.getScannedObjects() + 1);
+                    lastObjectId = objectId;
+                    object = next(objects);
+                    reference = next(references);
+                }
+            }
+        }
+        removeOrphans(orphans, report);
+    }
+
+    private void addOrphan(ObjectSummary object, List<String> orphans,
+        ReconciliationReport report) {
+        report.setOrphanObjects(report.getOrphanObjects() + 1);
+        log.warn("Orphan object {} {}",
+            keyValue(OBJECT_NAME, object.getObjectName()),
+            keyValue(LAST_MODIFIED, object.getLastModified()));
+        if (properties.isFix()) {
+            orphans.add(object.getObjectName());
+            if (orphans.size() >= properties.getPageSize()) {
+                removeOrphans(orphans, report);
+            }
+        }
+    }
+
+    private void removeOrphans(List<String> orphans, ReconciliationReport report) {
+        if (orphans.isEmpty()) {
+            return;
+        }
+        try {
+            var failed = minioStoreService.removeObjectsFromBucket(
+                minioStoreService.getBucketName(), orphans);
+            report.setFailures(report.getFailures() + failed.size());
+        } catch (Exception ex) {
+            report.setFailures(report.getFailures() + orphans.size());
+            log.error("Failed to remove {} orphan objects", orphans.size(), ex);
+        }
+        orphans.clear();
+    }
+
+    private void removeDanglingFiles(StorageReference reference, ReconciliationReport report) {
+        report.setDanglingFiles(report.getDanglingFiles() + reference.getCompletedCount());
+        log.warn("Files without stored object {} {}",
+            keyValue(STORAGE_ID, reference.getStorageId()),
+            keyValue(FILE_COUNT, reference.getCompletedCount()));
+        if (!properties.isFix()) {
+            return;
+        }
+        try {
+            fileMetadataRepository.deleteByStorageIdAndUploadStatus(reference.getStorageId(),
+                UploadStatus.COMPLETED);
+        } catch (Exception ex) {
+            report.setFailures(report.getFailures() + 1);
+            log.error("Failed to remove files without stored object {}",
+                keyValue(STORAGE_ID, reference.getStorageId()), ex);
+        }
+    }
+
+    private boolean abortQuietly(IncompleteUpload upload) {
+        return abortQuietly(upload.getObjectName(), upload.getUploadId());
+    }
+
+    private boolean abortQuietly(String objectName, String uploadId) {
+        try {
+            minioStoreService.abortMultipartUpload(minioStoreService.getBucketName(), objectName,
+                uploadId);
+            return true;
+        } catch (Exception ex) {
+            // the upload may already be gone, e.g. aborted by a lifecycle rule
+            log.warn("Failed to abort the multipart upload {} {}",
+                keyValue(OBJECT_NAME, objectName), keyValue(UPLOAD_ID, uploadId), ex);
+            return false;
+        }
+    }
+
+    private static void checkOrder(String previous, String current) {
+        if (previous != null && previous.compareTo(current) >= 0) {
+            throw new IllegalStateException("Objects aren't listed in ascending order: '"
+                + previous + "' before '" + current + "'");
+        }
+    }
+
+    private static <T> T next(Iterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Reads the storage ids page by page, each page continuing after the last id of the previous
+     * one, so no transaction or cursor is held open across the run.
+     */
+    private class StorageReferenceIterator implements Iterator<StorageReference> {
+
+        private Iterator<StorageReference> page = Collections.emptyIterator();
+        private String lastStorageId = "";
+        private boolean exhausted;
+
+        @Override
+        public boolean hasNext() {
+            if (!page.hasNext() && !exhausted) {
+                var references = fileMetadataRepository.findStorageReferencesAfter(
+                    lastStorageId, PageRequest.ofSize(properties.getPageSize()));
+                exhausted = references.size() < properties.getPageSize();
+                page = references.iterator();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public StorageReference next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var reference = page.next();
+            checkOrder(lastStorageId.isEmpty() ? null : lastStorageId,
+                reference.getStorageId());
+            lastStorageId = reference.getStorageId();
+            return reference;
+        }
+    }
+}
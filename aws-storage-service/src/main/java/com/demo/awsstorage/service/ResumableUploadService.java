@@ -0,0 +1,209 @@
+package com.demo.awsstorage.service;
+
+import static com.demo.awsstorage.constant.Logging.FILE_ID;
+import static com.demo.awsstorage.constant.Logging.PART_NUMBER;
+import static com.demo.awsstorage.constant.Logging.SIZE_IN_BYTES;
+import static com.demo.awsstorage.service.FileService.getStoragePath;
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import com.demo.awsstorage.dto.FileMetadataDto;
+import com.demo.awsstorage.dto.UploadPartDto;
+import com.demo.awsstorage.dto.UploadSessionDto;
+import com.demo.awsstorage.exception.FileStorageArgumentException;
+import com.demo.awsstorage.exception.FileStorageConflictException;
+import com.demo.awsstorage.exception.FileUploadStatusException;
+import com.demo.awsstorage.model.ResourceMetadata;
+import com.demo.awsstorage.model.UploadPartMetadata;
+import com.demo.awsstorage.model.UploadStatus;
+import com.demo.awsstorage.repository.FileMetadataRepository;
+import com.demo.awsstorage.repository.UploadPartRepository;
+import com.demo.filestoresdk.model.UploadedPart;
+import com.demo.filestoresdk.service.ContentTypeDetector;
+import com.demo.filestoresdk.service.MinioStoreService;
+import com.demo.filestoresdk.service.ParallelMultipartUploader;
+import io.minio.ObjectWriteResponse;
+import java.io.InputStream;
+import java.text.MessageFormat;
+import java.util.List;
+import javax.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Resumable upload protocol on top of S3 multipart uploads: initiate, upload parts, query stored
+ * parts, complete. The upload id is kept in {@link ResourceMetadata} and the ETag of every stored
+ * part in {@link UploadPartMetadata}, so any node can continue an upload from the last stored
+ * part.
+ */
+@Slf4j
+@Service
+@Validated
+@RequiredArgsConstructor
+public class ResumableUploadService {
+
+    private final FileMetadataRepository fileMetadataRepository;
+    private final UploadPartRepository uploadPartRepository;
+    private final MinioStoreService minioStoreService;
+    private final ContentTypeDetector contentTypeDetector;
+    private final FileService fileService;
+
+    public UploadSessionDto initiate(@Valid FileMetadataDto fileMetadataDto) {
+        String fileId = fileMetadataDto.getResourceId();
+        if (StringUtils.isNotBlank(fileId) && fileMetadataRepository.existsById(fileId)) {
+            throw new FileStorageConflictException(
+                MessageFormat.format("File ID {0} is already in use", fileId));
+        }
+
+        String contentType = contentTypeDetector.detect(fileMetadataDto.getName());
+        ResourceMetadata fileMetadata = fileService.convertToMetadataEntity(fileMetadataDto,
+            contentType);
+        // the parts are never hashed, a declared hash would go unverified
+        fileMetadata.setHash(null);
+        String uploadId = minioStoreService.initiateMultipartUpload(
+            minioStoreService.getBucketName(), getStoragePath(fileMetadata), contentType);
+        fileMetadata.setUploadId(uploadId);
+        try {
+            fileMetadata = fileMetadataRepository.save(fileMetadata);
+        } catch (DataIntegrityViolationException e) {
+            minioStoreService.abortMultipartUpload(minioStoreService.getBucketName(),
+                getStoragePath(fileMetadata), uploadId);
+            throw new FileStorageConflictException(
+                String.format("File with id %s already exists", fileMetadataDto.getResourceId()));
+        }
+
+        log.debug("Resumable upload initiated {}", keyValue(FILE_ID, fileMetadata.getResourceId()));
+        return toUploadSessionDto(fileMetadata, List.of());
+    }
+
+    /**
+     * Stores a part. Only the last part may be smaller than the S3 minimum part size, so a short
+     * part is rejected when it arrives if a part with a higher number is already stored, and any
+     * part is rejected while a short part with a lower number is stored.
+     */
+    public UploadPartDto uploadPart(String fileId, int partNumber, final InputStream is) {
+        ResourceMetadata fileMetadata = getUploadInProgress(fileId);
+        List<UploadPartMetadata> storedParts =
+            uploadPartRepository.findByResourceIdOrderByPartNumber(fileId);
+        storedParts.stream()
+            .filter(storedPart -> storedPart.getPartNumber() < partNumber
+                && storedPart.getSizeInBytes() < ParallelMultipartUploader.MIN_PART_SIZE)
+            .findFirst()
+            .ifPresent(storedPart -> {
+                throw partTooSmall(fileId, storedPart);
+            });
+        boolean last = storedParts.stream()
+            .noneMatch(storedPart -> storedPart.getPartNumber() > partNumber);
+        UploadedPart uploadedPart = minioStoreService.uploadPart(minioStoreService.getBucketName(),
+            getStoragePath(fileMetadata), fileMetadata.getUploadId(), partNumber, is, last);
+        UploadPartMetadata uploadPart = uploadPartRepository.save(UploadPartMetadata.builder()
+            .resourceId(fileId)
+            .partNumber(uploadedPart.getPartNumber())
+            .etag(uploadedPart.getEtag())
+            .sizeInBytes(uploadedPart.getSize())
+            .build());
+
+        log.debug("Upload part stored {} {} {}",
+            keyValue(FILE_ID, fileId),
+            keyValue(PART_NUMBER, partNumber),
+            keyValue(SIZE_IN_BYTES, uploadedPart.getSize()));
+        return toUploadPartDto(uploadPart);
+    }
+
+    public UploadSessionDto getUpload(String fileId) {
+        ResourceMetadata fileMetadata = fileService.getFileMetadataById(fileId);
+        return toUploadSessionDto(fileMetadata,
+            uploadPartRepository.findByResourceIdOrderByPartNumber(fileId));
+    }
+
+    public UploadSessionDto complete(String fileId) {
+        ResourceMetadata fileMetadata = getUploadInProgress(fileId);
+        List<UploadPartMetadata> uploadParts =
+            uploadPartRepository.findByResourceIdOrderByPartNumber(fileId);
+        if (uploadParts.isEmpty()) {
+            throw new FileStorageArgumentException(
+                MessageFormat.format("No parts uploaded for file ID {0}", fileId));
+        }
+        // parts stored concurrently may have slipped past the check on arrival
+        for (UploadPartMetadata uploadPart : uploadParts.subList(0, uploadParts.size() - 1)) {
+            if (uploadPart.getSizeInBytes() < ParallelMultipartUploader.MIN_PART_SIZE) {
+                throw partTooSmall(fileId, uploadPart);
+            }
+        }
+
+        ObjectWriteResponse response = minioStoreService.completeMultipartUpload(
+            minioStoreService.getBucketName(), getStoragePath(fileMetadata),
+            fileMetadata.getUploadId(), uploadParts.stream()
+                .map(uploadPart -> UploadedPart.builder()
+                    .partNumber(uploadPart.getPartNumber())
+                    .etag(uploadPart.getEtag())
+                    .size(uploadPart.getSizeInBytes())
+                    .build())
+                .toList());
+
+        fileMetadata.setSizeInBytes(uploadParts.stream()
+            .mapToLong(UploadPartMetadata::getSizeInBytes)
+            .sum());
+        fileMetadata.setEtag(response.etag());
+        fileMetadata.setUploadId(null);
+        fileMetadata.setUploadStatus(UploadStatus.COMPLETED);
+        fileMetadata = fileMetadataRepository.save(fileMetadata);
+        uploadPartRepository.deleteByResourceId(fileId);
+
+        log.debug("Resumable upload completed {} {}",
+            keyValue(FILE_ID, fileId),
+            keyValue(SIZE_IN_BYTES, fileMetadata.getSizeInBytes()));
+        return toUploadSessionDto(fileMetadata, List.of());
+    }
+
+    public void abort(String fileId) {
+        ResourceMetadata fileMetadata = getUploadInProgress(fileId);
+        minioStoreService.abortMultipartUpload(minioStoreService.getBucketName(),
+            getStoragePath(fileMetadata), fileMetadata.getUploadId());
+        uploadPartRepository.deleteByResourceId(fileId);
+        fileMetadataRepository.delete(fileMetadata);
+
+        log.debug("Resumable upload aborted {}", keyValue(FILE_ID, fileId));
+    }
+
+    private ResourceMetadata getUploadInProgress(String fileId) {
+        ResourceMetadata fileMetadata = fileService.getFileMetadataById(fileId);
+        if (StringUtils.isBlank(fileMetadata.getUploadId())
+            || fileMetadata.getUploadStatus() == UploadStatus.COMPLETED) {
+            throw new FileUploadStatusException(
+                MessageFormat.format("File ID {0} has no upload in progress", fileId));
+        }
+        return fileMetadata;
+    }
+
+    private static FileStorageArgumentException partTooSmall(String fileId,
+        UploadPartMetadata uploadPart) {
+        return new FileStorageArgumentException(MessageFormat.format(
+            "Part {0} of file ID {1} is smaller than {2} bytes and must be the last part",
+            uploadPart.getPartNumber(), fileId,
+            String.valueOf(ParallelMultipartUploader.MIN_PART_SIZE)));
+    }
+
+    private UploadSessionDto toUploadSessionDto(ResourceMetadata fileMetadata,
+        List<UploadPartMetadata> uploadParts) {
+        return UploadSessionDto.builder()
+            .fileId(fileMetadata.getResourceId())
+            .uploadStatus(fileMetadata.getUploadStatus().name())
+            .partSize(minioStoreService.getUploadPartSize())
+            .parts(uploadParts.stream()
+                .map(this::toUploadPartDto)
+                .toList())
+            .build();
+    }
+
+    private UploadPartDto toUploadPartDto(UploadPartMetadata uploadPart) {
+        return UploadPartDto.builder()
+            .partNumber(uploadPart.getPartNumber())
+            .etag(uploadPart.getEtag())
+            .sizeInBytes(uploadPart.getSizeInBytes())
+            .build();
+    }
+}
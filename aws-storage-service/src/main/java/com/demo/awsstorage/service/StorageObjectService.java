@@ -0,0 +1,169 @@
+package com.demo.awsstorage.service;
+
+import static com.demo.awsstorage.constant.Logging.COPIED_COUNT;
+import static com.demo.awsstorage.constant.Logging.FAILED_OBJECT_COUNT;
+import static com.demo.awsstorage.constant.Logging.TIME_TAKEN_IN_MILLI_SECONDS;
+import static com.demo.awsstorage.service.FileService.MINIO_FILE_SEPARATOR;
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import com.demo.awsstorage.dto.StorageObjectCopyRequestDto;
+import com.demo.awsstorage.dto.StorageObjectCopyResultDto;
+import com.demo.awsstorage.dto.StorageObjectDto;
+import com.demo.awsstorage.dto.StorageObjectPageDto;
+import com.demo.awsstorage.exception.FileStorageArgumentException;
+import com.demo.awsstorage.exception.FileStorageIOException;
+import com.demo.filestoresdk.configutation.MinioStoreServiceFactory;
+import com.demo.filestoresdk.model.ObjectSummary;
+import com.demo.filestoresdk.service.MinioStoreService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.NoSuchElementException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StopWatch;
+
+/**
+ * Lists, copies and moves the objects of the buckets, independently of the file metadata. The
+ * keys under {@link FileService#MINIO_FILE_SEPARATOR} of the service bucket belong to the file
+ * metadata, so they are neither copied nor overwritten here.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageObjectService {
+
+    private final MinioStoreService minioStoreService;
+    private final MinioStoreServiceFactory minioStoreServiceFactory;
+    private final ObjectMapper objectMapper;
+
+    public StorageObjectPageDto listObjects(String prefix, boolean recursive,
+        String continuationToken, int maxKeys) {
+        var page = minioStoreService.listObjects(minioStoreService.getBucketName(), prefix,
+            recursive, continuationToken, maxKeys);
+        return StorageObjectPageDto.builder()
+            .objects(page.getObjects().stream()
+                .map(StorageObjectService::toStorageObjectDto)
+                .toList())
+            .prefixes(page.getPrefixes())
+            .nextContinuationToken(page.getNextContinuationToken())
+            .build();
+    }
+
+    /**
+     * Writes all objects under the prefix to the output stream as a JSON array. Objects are
+     * written as the listing pages arrive, so memory use is constant whatever the bucket size.
+     * A parallel listing lists key range shards of the keyspace concurrently, it is always
+     * recursive. A listing which fails half way leaves the array unterminated, so the client
+     * can't take the truncated listing for a complete one.
+     */
+    public void writeObjects(String prefix, boolean recursive, boolean parallel, boolean sorted,
+        OutputStream outputStream) {
+        var bucketName = minioStoreService.getBucketName();
+        try (var objects = parallel
+            ? minioStoreService.streamObjectsSharded(bucketName, prefix, sorted)
+            : minioStoreService.streamObjects(bucketName, prefix, recursive);
+            var generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+            generator.writeStartArray();
+            var iterator = objects.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(toStorageObjectDto(iterator.next()));
+            }
+            generator.writeEndArray();
+        } catch (IOException ex) {
+            throw new FileStorageIOException("Error while listing objects with prefix " + prefix,
+                ex);
+        }
+    }
+
+    /**
+     * Copies or moves the objects under a prefix or the listed objects, between buckets and
+     * named clients. The objects are copied concurrently, large ones in parallel parts.
+     */
+    public StorageObjectCopyResultDto copyObjects(StorageObjectCopyRequestDto copyRequest) {
+        var hasPrefix = copyRequest.getSourcePrefix() != null;
+        var hasObjectNames = copyRequest.getObjectNames() != null
+            && !copyRequest.getObjectNames().isEmpty();
+        if (hasPrefix == hasObjectNames) {
+            throw new FileStorageArgumentException(
+                "Either a source prefix or object names are required");
+        }
+        var source = getStoreService(copyRequest.getSourceClient());
+        var target = getStoreService(copyRequest.getDestinationClient());
+        var sourceBucket = StringUtils.defaultIfBlank(copyRequest.getSourceBucket(),
+            source.getBucketName());
+        var destinationBucket = StringUtils.defaultIfBlank(copyRequest.getDestinationBucket(),
+            target.getBucketName());
+        if (isManagedBucket(source, sourceBucket) && (hasPrefix
+            ? overlapsManagedKeys(copyRequest.getSourcePrefix())
+            : copyRequest.getObjectNames().stream()
+                .anyMatch(objectName -> StringUtils.removeStart(objectName, "/")
+                    .startsWith(MINIO_FILE_SEPARATOR)))) {
+            throw new FileStorageArgumentException(
+                "Objects under " + MINIO_FILE_SEPARATOR + " are managed by the files API");
+        }
+        if (isManagedBucket(target, destinationBucket)
+            && overlapsManagedKeys(copyRequest.getDestinationPrefix())) {
+            throw new FileStorageArgumentException(
+                "The destination prefix must be outside of " + MINIO_FILE_SEPARATOR);
+        }
+
+        var stopWatch = new StopWatch();
+        stopWatch.start();
+        var result = hasPrefix
+            ? source.copyObjects(sourceBucket, copyRequest.getSourcePrefix(), target,
+            destinationBucket, copyRequest.getDestinationPrefix(), copyRequest.isMove())
+            : source.copyObjects(sourceBucket, copyRequest.getObjectNames(), target,
+                destinationBucket, copyRequest.getDestinationPrefix(), copyRequest.isMove());
+        stopWatch.stop();
+
+        log.info("Objects copied {} {} {}",
+            keyValue(COPIED_COUNT, result.getCopiedCount()),
+            keyValue(FAILED_OBJECT_COUNT, result.getFailedObjects().size()),
+            keyValue(TIME_TAKEN_IN_MILLI_SECONDS, stopWatch.getTotalTimeMillis() + " ms"));
+        return StorageObjectCopyResultDto.builder()
+            .copiedCount(result.getCopiedCount())
+            .removedCount(result.getRemovedCount())
+            .failedObjects(result.getFailedObjects())
+            .build();
+    }
+
+    private boolean isManagedBucket(MinioStoreService storeService, String bucketName) {
+        return minioStoreService.isSameBucket(minioStoreService.getBucketName(), storeService,
+            bucketName);
+    }
+
+    /**
+     * Whether keys under the prefix can be managed ones, a prefix of the managed prefix itself,
+     * e.g. the empty one, covers them too.
+     */
+    private static boolean overlapsManagedKeys(String prefix) {
+        var relativePrefix = StringUtils.removeStart(StringUtils.defaultString(prefix), "/");
+        return relativePrefix.startsWith(MINIO_FILE_SEPARATOR)
+            || MINIO_FILE_SEPARATOR.startsWith(relativePrefix);
+    }
+
+    private MinioStoreService getStoreService(String clientName) {
+        if (StringUtils.isBlank(clientName)) {
+            return minioStoreService;
+        }
+        try {
+            return minioStoreServiceFactory.create(clientName);
+        } catch (NoSuchElementException ex) {
+            throw new FileStorageArgumentException("Unknown storage client " + clientName);
+        }
+    }
+
+    private static StorageObjectDto toStorageObjectDto(ObjectSummary objectSummary) {
+        return StorageObjectDto.builder()
+            .name(objectSummary.getObjectName())
+            .sizeInBytes(objectSummary.getSize())
+            .etag(objectSummary.getEtag())
+            .lastModified(objectSummary.getLastModified())
+            .build();
+    }
+}
@@ -1,20 +1,41 @@
 package com.demo.filestoresdk.configutation;
 
+import com.demo.filestoresdk.service.BufferPool;
+import com.demo.filestoresdk.service.ContentTypeDetector;
 import com.demo.filestoresdk.service.MinioStoreService;
+import com.demo.filestoresdk.service.MultipartMinioAsyncClient;
+import com.demo.filestoresdk.service.ReactiveStoreService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
+import io.netty.channel.ChannelOption;
 import jakarta.annotation.PostConstruct;
-import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
 
 @Configuration
 @RequiredArgsConstructor
@@ -22,13 +43,48 @@ import org.springframework.context.support.ResourceBundleMessageSource;
 @EnableConfigurationProperties({MinioProperties.class})
 public class FileStoreSdkAutoConfiguration {
 
+    public static final String STAT_CACHE_NAME = "minio.stat";
+    public static final String BUFFER_POOL_NAME = "minio.buffer.pool";
+    public static final String LOCAL_CACHE_NAME = "minio.local";
+    public static final String HTTP_CLIENT_NAME = "minio.http";
+
     @Qualifier("minio-com.demo.filestoresdk.configutation.MinioProperties")
     private final MinioProperties properties;
     private final MessageSource messageSource;
 
     @Bean
-    public MinioStoreService minioStoreService(MinioClient minioClient) {
-        return new MinioStoreService(minioClient, properties.getDefaultMinioClientData());
+    public MinioStoreService minioStoreService(MinioClient minioClient,
+        MultipartMinioAsyncClient multipartMinioAsyncClient,
+        ContentTypeDetector contentTypeDetector, BufferPool bufferPool,
+        ObjectProvider<MeterRegistry> meterRegistry) {
+        var minioStoreService = new MinioStoreService(minioClient, multipartMinioAsyncClient,
+            properties.getDefaultMinioClientData(), contentTypeDetector, bufferPool);
+        meterRegistry.ifAvailable(registry -> {
+            minioStoreService.getObjectStatCache().bindTo(registry, STAT_CACHE_NAME);
+            minioStoreService.getLocalObjectCache().bindTo(registry, LOCAL_CACHE_NAME);
+        });
+        return minioStoreService;
+    }
+
+    /**
+     * Reactive access to the default client, sharing the stat cache of
+     * {@link MinioStoreService} so both see the same objects.
+     */
+    @Bean
+    @ConditionalOnMissingBean(ReactiveStoreService.class)
+    ReactiveStoreService reactiveStoreService(MinioClient minioClient,
+        MultipartMinioAsyncClient multipartMinioAsyncClient, MinioStoreService minioStoreService) {
+        final var client = properties.getHttpClient();
+        var httpClient = HttpClient.create()
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                (int) client.getConnectTimeout().toMillis())
+            .responseTimeout(client.getReadTimeout());
+        var webClient = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+        return new ReactiveStoreService(minioClient, multipartMinioAsyncClient,
+            properties.getDefaultMinioClientData(), minioStoreService.getObjectStatCache(),
+            webClient);
     }
 
     @Bean
@@ -43,16 +99,72 @@ public class FileStoreSdkAutoConfiguration {
     }
 
     @Bean
-    OkHttpClient httpClient() {
+    @ConditionalOnMissingBean(MultipartMinioAsyncClient.class)
+    MultipartMinioAsyncClient multipartMinioAsyncClient(OkHttpClient httpClient) {
+        return new MultipartMinioAsyncClient(MinioAsyncClient.builder()
+            .endpoint(properties.getUrl())
+            .region(properties.getRegion())
+            .credentials(properties.getAccessKey(), properties.getSecretKey())
+            .httpClient(httpClient)
+            .build());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ContentTypeDetector.class)
+    ContentTypeDetector contentTypeDetector(BufferPool bufferPool) {
+        return new ContentTypeDetector(bufferPool);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(BufferPool.class)
+    BufferPool bufferPool(ObjectProvider<MeterRegistry> meterRegistry) {
+        var bufferPool = new BufferPool(properties.getBufferPoolMaxBytes());
+        meterRegistry.ifAvailable(registry -> bufferPool.bindTo(registry, BUFFER_POOL_NAME));
+        return bufferPool;
+    }
+
+    /**
+     * The HTTP client shared by all MinIO clients, including the named ones, so they share one
+     * connection pool and one dispatcher.
+     */
+    @Bean
+    OkHttpClient httpClient(Environment environment,
+        ObjectProvider<MeterRegistry> meterRegistry) {
         final var client = properties.getHttpClient();
 
+        var dispatcher = Threading.VIRTUAL.isActive(environment)
+            // async calls (parallel parts and ranges) then block virtual instead of pool threads
+            ? new Dispatcher(Executors.newCachedThreadPool(
+                new VirtualThreadTaskExecutor("minio-http-").getVirtualThreadFactory()))
+            : new Dispatcher();
+        dispatcher.setMaxRequests(client.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(client.getMaxRequestsPerHost());
+        var connectionPool = new ConnectionPool(client.getMaxIdleConnections(),
+            client.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+        var protocols = client.isHttp2Enabled()
+            ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+            : List.of(Protocol.HTTP_1_1);
+
+        meterRegistry.ifAvailable(registry -> {
+            new OkHttpConnectionPoolMetrics(connectionPool, HTTP_CLIENT_NAME + ".pool",
+                Tags.empty(), client.getMaxIdleConnections()).bindTo(registry);
+            Gauge.builder(HTTP_CLIENT_NAME + ".calls", dispatcher, Dispatcher::runningCallsCount)
+                .tag("state", "running")
+                .register(registry);
+            Gauge.builder(HTTP_CLIENT_NAME + ".calls", dispatcher, Dispatcher::queuedCallsCount)
+                .tag("state", "queued")
+                .register(registry);
+        });
+
         return new OkHttpClient()
             .newBuilder()
             .connectTimeout(client.getConnectTimeout())
             .writeTimeout(client.getWriteTimeout())
             .readTimeout(client.getReadTimeout())
             .retryOnConnectionFailure(client.getRetryOnConnectionFailure())
-            .protocols(Collections.singletonList(Protocol.HTTP_1_1))
+            .connectionPool(connectionPool)
+            .dispatcher(dispatcher)
+            .protocols(protocols)
             .build();
     }
 
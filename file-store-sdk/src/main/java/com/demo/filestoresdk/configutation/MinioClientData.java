@@ -1,5 +1,6 @@
 package com.demo.filestoresdk.configutation;
 
+import java.time.Duration;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +20,23 @@ public class MinioClientData {
     private String rootDirectory;
     private int expiryTime;
     private int minPartSize;
+    private int uploadParallelism;
+    private int uploadBufferPoolSize;
+    private int downloadRangeSize;
+    private int downloadParallelism;
+    private long downloadParallelThreshold;
+    private int downloadCoalescingBufferSize;
+    private long statCacheMaxSize;
+    private Duration statCacheTtl;
+    private String localCacheDirectory;
+    private long localCacheMaxBytes;
+    private long localCacheMaxObjectSize;
+    private int listShardFanOut;
+    private int listParallelism;
+    private int deleteParallelism;
+    private long copyPartSize;
+    private int copyParallelism;
+    private int bulkCopyParallelism;
     private int retryMaxAttempts;
     private int retryFixedBackOff;
 }
@@ -4,6 +4,7 @@ import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
 
 import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -24,6 +25,24 @@ public class MinioProperties {
     private String rootDirectory;
     private int expiryTime;
     private int minPartSize;
+    private int uploadParallelism;
+    private int uploadBufferPoolSize;
+    private int downloadRangeSize;
+    private int downloadParallelism;
+    private long downloadParallelThreshold;
+    private int downloadCoalescingBufferSize;
+    private long statCacheMaxSize;
+    private Duration statCacheTtl;
+    private String localCacheDirectory;
+    private long localCacheMaxBytes;
+    private long localCacheMaxObjectSize;
+    private long bufferPoolMaxBytes = 512L * 1024 * 1024;
+    private int listShardFanOut = 16;
+    private int listParallelism = 16;
+    private int deleteParallelism = 4;
+    private long copyPartSize = 128L * 1024 * 1024;
+    private int copyParallelism = 8;
+    private int bulkCopyParallelism = 8;
     private boolean skipCertValidation;
     private int retryMaxAttempts;
     private int retryFixedBackOff;
@@ -43,6 +62,23 @@ public class MinioProperties {
         minioClientData.setRootDirectory(rootDirectory);
         minioClientData.setExpiryTime(expiryTime);
         minioClientData.setMinPartSize(minPartSize);
+        minioClientData.setUploadParallelism(uploadParallelism);
+        minioClientData.setUploadBufferPoolSize(uploadBufferPoolSize);
+        minioClientData.setDownloadRangeSize(downloadRangeSize);
+        minioClientData.setDownloadParallelism(downloadParallelism);
+        minioClientData.setDownloadParallelThreshold(downloadParallelThreshold);
+        minioClientData.setDownloadCoalescingBufferSize(downloadCoalescingBufferSize);
+        minioClientData.setStatCacheMaxSize(statCacheMaxSize);
+        minioClientData.setStatCacheTtl(statCacheTtl);
+        minioClientData.setLocalCacheDirectory(localCacheDirectory);
+        minioClientData.setLocalCacheMaxBytes(localCacheMaxBytes);
+        minioClientData.setLocalCacheMaxObjectSize(localCacheMaxObjectSize);
+        minioClientData.setListShardFanOut(listShardFanOut);
+        minioClientData.setListParallelism(listParallelism);
+        minioClientData.setDeleteParallelism(deleteParallelism);
+        minioClientData.setCopyPartSize(copyPartSize);
+        minioClientData.setCopyParallelism(copyParallelism);
+        minioClientData.setBulkCopyParallelism(bulkCopyParallelism);
         minioClientData.setRetryMaxAttempts(retryMaxAttempts);
         minioClientData.setRetryFixedBackOff(retryFixedBackOff);
         return minioClientData;
@@ -58,6 +94,42 @@ public class MinioProperties {
             .rootDirectory(defaultIfBlank(minioClientData.getRootDirectory(), rootDirectory))
             .expiryTime(
                 minioClientData.getExpiryTime() == 0 ? expiryTime : minioClientData.getExpiryTime())
+            .minPartSize(
+                minioClientData.getMinPartSize() == 0 ? minPartSize : minioClientData.getMinPartSize())
+            .uploadParallelism(minioClientData.getUploadParallelism() == 0 ? uploadParallelism
+                : minioClientData.getUploadParallelism())
+            .uploadBufferPoolSize(minioClientData.getUploadBufferPoolSize() == 0
+                ? uploadBufferPoolSize : minioClientData.getUploadBufferPoolSize())
+            .downloadRangeSize(minioClientData.getDownloadRangeSize() == 0 ? downloadRangeSize
+                : minioClientData.getDownloadRangeSize())
+            .downloadParallelism(minioClientData.getDownloadParallelism() == 0
+                ? downloadParallelism : minioClientData.getDownloadParallelism())
+            .downloadParallelThreshold(minioClientData.getDownloadParallelThreshold() == 0
+                ? downloadParallelThreshold : minioClientData.getDownloadParallelThreshold())
+            .downloadCoalescingBufferSize(minioClientData.getDownloadCoalescingBufferSize() == 0
+                ? downloadCoalescingBufferSize : minioClientData.getDownloadCoalescingBufferSize())
+            .statCacheMaxSize(minioClientData.getStatCacheMaxSize() == 0 ? statCacheMaxSize
+                : minioClientData.getStatCacheMaxSize())
+            .statCacheTtl(Optional.ofNullable(minioClientData.getStatCacheTtl())
+                .orElse(statCacheTtl))
+            // the directory isn't inherited, clients sharing it would evict each other's files
+            .localCacheDirectory(minioClientData.getLocalCacheDirectory())
+            .localCacheMaxBytes(minioClientData.getLocalCacheMaxBytes() == 0
+                ? localCacheMaxBytes : minioClientData.getLocalCacheMaxBytes())
+            .localCacheMaxObjectSize(minioClientData.getLocalCacheMaxObjectSize() == 0
+                ? localCacheMaxObjectSize : minioClientData.getLocalCacheMaxObjectSize())
+            .listShardFanOut(minioClientData.getListShardFanOut() == 0 ? listShardFanOut
+                : minioClientData.getListShardFanOut())
+            .listParallelism(minioClientData.getListParallelism() == 0 ? listParallelism
+                : minioClientData.getListParallelism())
+            .deleteParallelism(minioClientData.getDeleteParallelism() == 0 ? deleteParallelism
+                : minioClientData.getDeleteParallelism())
+            .copyPartSize(minioClientData.getCopyPartSize() == 0 ? copyPartSize
+                : minioClientData.getCopyPartSize())
+            .copyParallelism(minioClientData.getCopyParallelism() == 0 ? copyParallelism
+                : minioClientData.getCopyParallelism())
+            .bulkCopyParallelism(minioClientData.getBulkCopyParallelism() == 0
+                ? bulkCopyParallelism : minioClientData.getBulkCopyParallelism())
             .retryMaxAttempts(retryMaxAttempts)
             .retryFixedBackOff(retryFixedBackOff)
             .build();
@@ -70,5 +142,13 @@ public class MinioProperties {
         private Duration writeTimeout;
         private Duration readTimeout;
         private Boolean retryOnConnectionFailure;
+        private int maxIdleConnections = 64;
+        // below the idle timeout of common S3 endpoints and balancers, a stale pooled connection
+        // fails the request since retryOnConnectionFailure is off
+        private Duration keepAlive = Duration.ofSeconds(15);
+        private int maxRequests = 256;
+        private int maxRequestsPerHost = 64;
+        // negotiated with ALPN, so only used for https endpoints which support it
+        private boolean http2Enabled;
     }
 }
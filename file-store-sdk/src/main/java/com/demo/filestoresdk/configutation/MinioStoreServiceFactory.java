@@ -1,12 +1,20 @@
 package com.demo.filestoresdk.configutation;
 
+import com.demo.filestoresdk.service.BufferPool;
+import com.demo.filestoresdk.service.ContentTypeDetector;
 import com.demo.filestoresdk.service.MinioStoreService;
+import com.demo.filestoresdk.service.MultipartMinioAsyncClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
@@ -18,8 +26,20 @@ public class MinioStoreServiceFactory {
     @Qualifier("minio-com.demo.filestoresdk.configutation.MinioProperties")
     private final MinioProperties properties;
     private final OkHttpClient httpClient;
+    private final ContentTypeDetector contentTypeDetector;
+    private final BufferPool bufferPool;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ConcurrentMap<String, MinioStoreService> services = new ConcurrentHashMap<>();
 
+    /**
+     * Returns the service of the named client. Services are created once per client and then
+     * reused, so the clients keep their caches and share the connections of the HTTP client.
+     */
     public MinioStoreService create(String clientName) {
+        return services.computeIfAbsent(clientName, this::createService);
+    }
+
+    private MinioStoreService createService(String clientName) {
         var minioClientData = Optional.ofNullable(properties.getClients())
             .orElseThrow()
             .entrySet()
@@ -38,11 +58,27 @@ public class MinioStoreServiceFactory {
             .httpClient(httpClient)
             .build();
 
+        var multipartMinioAsyncClient = new MultipartMinioAsyncClient(MinioAsyncClient.builder()
+            .endpoint(minioClientData.getUrl())
+            .region(minioClientData.getRegion())
+            .credentials(minioClientData.getAccessKey(), minioClientData.getSecretKey())
+            .httpClient(httpClient)
+            .build());
+
         if (properties.isSkipCertValidation()) {
             ignoreCertCheck(minioClient);
+            ignoreCertCheck(multipartMinioAsyncClient);
         }
 
-        return new MinioStoreService(minioClient, minioClientData);
+        var minioStoreService = new MinioStoreService(minioClient, multipartMinioAsyncClient,
+            minioClientData, contentTypeDetector, bufferPool);
+        meterRegistry.ifAvailable(registry -> {
+            minioStoreService.getObjectStatCache().bindTo(registry,
+                FileStoreSdkAutoConfiguration.STAT_CACHE_NAME + "." + clientName);
+            minioStoreService.getLocalObjectCache().bindTo(registry,
+                FileStoreSdkAutoConfiguration.LOCAL_CACHE_NAME + "." + clientName);
+        });
+        return minioStoreService;
     }
 
     private void ignoreCertCheck(MinioClient minioClient) {
@@ -52,4 +88,12 @@ public class MinioStoreServiceFactory {
             log.error("Failed to ignore cert check", ex);
         }
     }
+
+    private void ignoreCertCheck(MinioAsyncClient minioAsyncClient) {
+        try {
+            minioAsyncClient.ignoreCertCheck();
+        } catch (Exception ex) {
+            log.error("Failed to ignore cert check", ex);
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package com.demo.filestoresdk.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCopyResult {
+
+    private long copiedCount;
+    /**
+     * Sources removed after they have been copied, by a move.
+     */
+    private long removedCount;
+    /**
+     * Sources which couldn't be copied, or couldn't be removed after the copy by a move.
+     */
+    private List<String> failedObjects;
+}
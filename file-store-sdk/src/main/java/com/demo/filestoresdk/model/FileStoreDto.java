@@ -15,4 +15,6 @@ public class FileStoreDto {
     private Long fileSize;
     private String contentType;
     private String fileName;
+    private String etag;
+    private String versionId;
 }
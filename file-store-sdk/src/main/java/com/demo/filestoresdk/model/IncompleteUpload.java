@@ -0,0 +1,18 @@
+package com.demo.filestoresdk.model;
+
+import java.time.ZonedDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncompleteUpload {
+
+    private String objectName;
+    private String uploadId;
+    private ZonedDateTime initiated;
+}
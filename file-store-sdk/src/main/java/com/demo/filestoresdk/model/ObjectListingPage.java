@@ -0,0 +1,24 @@
+package com.demo.filestoresdk.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObjectListingPage {
+
+    private List<ObjectSummary> objects;
+    /**
+     * Common prefixes of a non-recursive listing, i.e. the "folders" on this level.
+     */
+    private List<String> prefixes;
+    /**
+     * Token to pass for the next page, {@code null} on the last page.
+     */
+    private String nextContinuationToken;
+}
@@ -0,0 +1,19 @@
+package com.demo.filestoresdk.model;
+
+import java.time.ZonedDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObjectSummary {
+
+    private String objectName;
+    private long size;
+    private String etag;
+    private ZonedDateTime lastModified;
+}
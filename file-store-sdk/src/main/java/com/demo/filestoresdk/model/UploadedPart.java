@@ -0,0 +1,17 @@
+package com.demo.filestoresdk.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadedPart {
+
+    private int partNumber;
+    private String etag;
+    private long size;
+}
@@ -0,0 +1,227 @@
+package com.demo.filestoresdk.service;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide pool of reusable heap buffers shared by the upload, download and zip paths. At
+ * most {@code maxBytes} are leased at a time and callers block until enough is released. Released
+ * buffers are kept for reuse as long as leased and retained buffers together stay within
+ * {@code maxBytes}. Capacities are rounded up to a power of two below 1 MiB and to whole MiB
+ * above, so buffers of the configured part and range sizes are reused as they are.
+ * {@link Budget Budgets} put an additional limit on what a single request or component leases.
+ */
+public class BufferPool {
+
+    private static final int PERMIT_BYTES = 1024;
+    private static final int MIN_CAPACITY = 4 * 1024;
+    private static final int MIB = 1024 * 1024;
+
+    private final long maxBytes;
+    private final Semaphore permits;
+    private final Map<Integer, Queue<byte[]>> retained = new ConcurrentHashMap<>();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public BufferPool(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.permits = new Semaphore(toPermits(maxBytes), true);
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getUsedBytes() {
+        return maxBytes - (long) permits.availablePermits() * PERMIT_BYTES;
+    }
+
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * Leases a buffer of at least {@code size} bytes, waiting for other leases to be released if
+     * the pool is exhausted.
+     */
+    public byte[] acquire(int size) throws InterruptedException {
+        var capacity = capacity(size);
+        var required = toPermits(capacity);
+        if (!permits.tryAcquire(required)) {
+            waits.increment();
+            var start = System.nanoTime();
+            try {
+                permits.acquire(required);
+            } finally {
+                waitNanos.add(System.nanoTime() - start);
+            }
+        }
+        return take(capacity);
+    }
+
+    /**
+     * Leases a buffer of at least {@code size} bytes if the pool has room for it right away.
+     *
+     * @return the buffer or {@code null} if the pool is exhausted
+     */
+    public byte[] tryAcquire(int size) {
+        if (!fits(size)) {
+            return null;
+        }
+        var capacity = capacity(size);
+        return permits.tryAcquire(toPermits(capacity)) ? take(capacity) : null;
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        permits.release(toPermits(buffer.length));
+        if (retainedBytes.addAndGet(buffer.length) + getUsedBytes() <= maxBytes) {
+            retained.computeIfAbsent(buffer.length, key -> new ConcurrentLinkedQueue<>())
+                .offer(buffer);
+        } else {
+            retainedBytes.addAndGet(-buffer.length);
+        }
+    }
+
+    public Budget newBudget(long budgetBytes) {
+        return new Budget(budgetBytes);
+    }
+
+    public void bindTo(MeterRegistry meterRegistry, String name) {
+        Gauge.builder(name + ".used", this, BufferPool::getUsedBytes)
+            .description("Bytes currently leased from the buffer pool")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder(name + ".retained", this, BufferPool::getRetainedBytes)
+            .description("Bytes of released buffers kept for reuse")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder(name + ".max", this, BufferPool::getMaxBytes)
+            .description("Maximum bytes leased from the buffer pool at a time")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        FunctionTimer.builder(name + ".wait", this, pool -> pool.waits.longValue(),
+                pool -> pool.waitNanos.doubleValue(), TimeUnit.NANOSECONDS)
+            .description("Waits for a buffer while the pool was exhausted")
+            .register(meterRegistry);
+    }
+
+    private byte[] take(int capacity) {
+        var buffers = retained.get(capacity);
+        var buffer = buffers == null ? null : buffers.poll();
+        if (buffer != null) {
+            retainedBytes.addAndGet(-capacity);
+            return buffer;
+        }
+        evict();
+        return new byte[capacity];
+    }
+
+    /**
+     * Drops retained buffers until a new allocation fits within the pool limit.
+     */
+    private void evict() {
+        for (var buffers : retained.values()) {
+            while (retainedBytes.get() + getUsedBytes() > maxBytes) {
+                var buffer = buffers.poll();
+                if (buffer == null) {
+                    break;
+                }
+                retainedBytes.addAndGet(-buffer.length);
+            }
+        }
+    }
+
+    private boolean fits(int size) {
+        return size > 0 && roundUp(size) <= Math.min(maxBytes, Integer.MAX_VALUE);
+    }
+
+    private int capacity(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + size);
+        }
+        if (!fits(size)) {
+            throw new IllegalArgumentException(
+                "Buffer size " + size + " exceeds the buffer pool limit of " + maxBytes);
+        }
+        return (int) roundUp(size);
+    }
+
+    private static long roundUp(int size) {
+        return size <= MIB
+            ? Math.max(MIN_CAPACITY, Integer.highestOneBit(size - 1) << 1)
+            : ((long) size + MIB - 1) / MIB * MIB;
+    }
+
+    private static int toPermits(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE, (bytes + PERMIT_BYTES - 1) / PERMIT_BYTES);
+    }
+
+    /**
+     * Limits the bytes leased through it on top of the process wide limit of the pool.
+     */
+    public class Budget {
+
+        private final long budgetBytes;
+        private final Semaphore budgetPermits;
+
+        private Budget(long budgetBytes) {
+            this.budgetBytes = budgetBytes;
+            this.budgetPermits = new Semaphore(toPermits(budgetBytes), true);
+        }
+
+        public byte[] acquire(int size) throws InterruptedException {
+            var capacity = capacity(size);
+            if (capacity > budgetBytes) {
+                throw new IllegalArgumentException(
+                    "Buffer size " + size + " exceeds the budget of " + budgetBytes);
+            }
+            var required = toPermits(capacity);
+            budgetPermits.acquire(required);
+            try {
+                return BufferPool.this.acquire(size);
+            } catch (InterruptedException | RuntimeException ex) {
+                budgetPermits.release(required);
+                throw ex;
+            }
+        }
+
+        /**
+         * @return the buffer or {@code null} if either the budget or the pool is exhausted
+         */
+        public byte[] tryAcquire(int size) {
+            if (!fits(size)) {
+                return null;
+            }
+            var required = toPermits(capacity(size));
+            if (!budgetPermits.tryAcquire(required)) {
+                return null;
+            }
+            var buffer = BufferPool.this.tryAcquire(size);
+            if (buffer == null) {
+                budgetPermits.release(required);
+            }
+            return buffer;
+        }
+
+        public void release(byte[] buffer) {
+            if (buffer == null) {
+                return;
+            }
+            BufferPool.this.release(buffer);
+            budgetPermits.release(toPermits(buffer.length));
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.demo.filestoresdk.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares one storage download between the concurrent readers of the same object. The upstream
+ * stream is read in chunks on demand by whichever reader gets ahead, and the chunks are kept in
+ * pooled buffers until every reader has consumed them. At most {@code maxChunks} chunks are
+ * buffered, so a reader which gets that far ahead of the slowest one waits for it, but no longer
+ * than {@code maxWait}. The readers still at the oldest chunk are then detached and continue
+ * with their own download from where they are, so a reader which isn't read at all, e.g. one of
+ * two streams over the same object prefetched by the same thread, can't block the others. For
+ * the same reason a download waits for a pooled buffer only while it holds no chunk, otherwise
+ * an exhausted pool detaches the readers at the oldest chunk right away. A reader can join as
+ * long as the first chunk is still buffered, later requests start their own download.
+ */
+public class CoalescingDownloads {
+
+    private static final int DETACHED = -2;
+
+    private final ConcurrentMap<String, SharedDownload> downloads = new ConcurrentHashMap<>();
+    private final BufferPool bufferPool;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final long maxWaitNanos;
+
+    public CoalescingDownloads(BufferPool bufferPool, int chunkSize, int maxChunks,
+        Duration maxWait) {
+        this.bufferPool = bufferPool;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Opens a stream over the object identified by {@code key}, joining a download which is in
+     * flight or starting a new one with {@code upstream}. The upstream is opened again at the
+     * reader's offset for a reader which is detached.
+     */
+    public InputStream open(String key, UpstreamOpener upstream) {
+        while (true) {
+            var download = downloads.computeIfAbsent(key,
+                ignored -> new SharedDownload(key, upstream));
+            var reader = download.join();
+            if (reader != null) {
+                return reader;
+            }
+            downloads.remove(key, download);
+        }
+    }
+
+    @FunctionalInterface
+    public interface UpstreamOpener {
+
+        InputStream open(long offset) throws IOException;
+    }
+
+    private final class SharedDownload {
+
+        private final String key;
+        private final UpstreamOpener opener;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final Deque<Chunk> chunks = new ArrayDeque<>();
+        private final Set<Reader> readers = new HashSet<>();
+
+        private InputStream upstream;
+        private long firstChunk;
+        private boolean producing;
+        private boolean eof;
+        private boolean done;
+        private IOException failure;
+
+        SharedDownload(String key, UpstreamOpener opener) {
+            this.key = key;
+            this.opener = opener;
+        }
+
+        Reader join() {
+            lock.lock();
+            try {
+                if (done || firstChunk > 0 || failure != null) {
+                    return null;
+                }
+                var reader = new Reader(this);
+                readers.add(reader);
+                return reader;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return the number of bytes read, -1 at the end or {@link #DETACHED} if the reader
+         * has to continue with its own download
+         */
+        int read(Reader reader, byte[] b, int off, int len) throws IOException {
+            lock.lock();
+            try {
+                var deadline = System.nanoTime() + maxWaitNanos;
+                while (true) {
+                    if (reader.detached) {
+                        return DETACHED;
+                    }
+                    if (reader.chunk < firstChunk + chunks.size()) {
+                        return copy(reader, b, off, len);
+                    }
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    if (eof) {
+                        return -1;
+                    }
+                    if (producing) {
+                        // the producer is bounded by the timeouts of the storage client
+                        awaitChange(Long.MAX_VALUE);
+                        continue;
+                    }
+                    if (chunks.size() >= maxChunks) {
+                        if (!awaitChange(deadline)) {
+                            detachSlowest();
+                            deadline = System.nanoTime() + maxWaitNanos;
+                        }
+                        continue;
+                    }
+                    produce();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int copy(Reader reader, byte[] b, int off, int len) {
+            var chunk = chunkAt(reader.chunk);
+            var count = Math.min(len, chunk.length() - reader.offset);
+            System.arraycopy(chunk.buffer(), reader.offset, b, off, count);
+            reader.offset += count;
+            if (reader.offset == chunk.length()) {
+                reader.chunk++;
+                reader.offset = 0;
+                releaseConsumed();
+            }
+            return count;
+        }
+
+        private Chunk chunkAt(long index) {
+            var skip = index - firstChunk;
+            var iterator = chunks.iterator();
+            for (long i = 0; i < skip; i++) {
+                iterator.next();
+            }
+            return iterator.next();
+        }
+
+        /**
+         * Reads the next chunk from the upstream without holding the lock, so readers of already
+         * buffered chunks aren't blocked by the storage.
+         */
+        private void produce() {
+            producing = true;
+            var holding = !chunks.isEmpty();
+            lock.unlock();
+            Chunk chunk = null;
+            IOException error = null;
+            try {
+                if (upstream == null) {
+                    upstream = opener.open(0);
+                }
+                // waiting for the pool while holding chunks could wait on a reader of this thread
+                var buffer = holding
+                    ? bufferPool.tryAcquire(chunkSize)
+                    : bufferPool.acquire(chunkSize);
+                if (buffer != null) {
+                    try {
+                        var length = upstream.readNBytes(buffer, 0, chunkSize);
+                        chunk = new Chunk(buffer, length);
+                    } catch (IOException | RuntimeException ex) {
+                        bufferPool.release(buffer);
+                        throw ex;
+                    }
+                }
+            } catch (IOException ex) {
+                error = ex;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                error = new InterruptedIOException("Interrupted while waiting for a buffer");
+            } catch (RuntimeException ex) {
+                error = new IOException(ex.getLocalizedMessage(), ex);
+            } finally {
+                lock.lock();
+                producing = false;
+            }
+
+            if (error != null) {
+                failure = error;
+            } else if (chunk == null) {
+                // the pool is exhausted, the chunks pinned by slower readers are freed instead
+                if (!done) {
+                    detachSlowest();
+                }
+            } else if (chunk.length() == 0) {
+                bufferPool.release(chunk.buffer());
+                eof = true;
+            } else {
+                chunks.addLast(chunk);
+                eof = chunk.length() < chunkSize;
+            }
+            if (done) {
+                releaseAll();
+            }
+            changed.signalAll();
+        }
+
+        private void releaseConsumed() {
+            var slowest = readers.stream().mapToLong(reader -> reader.chunk).min()
+                .orElse(Long.MAX_VALUE);
+            var released = false;
+            while (!chunks.isEmpty() && firstChunk < slowest) {
+                bufferPool.release(chunks.pollFirst().buffer());
+                firstChunk++;
+                released = true;
+            }
+            if (released) {
+                // late readers would miss the released chunks, they start their own download
+                downloads.remove(key, this);
+                changed.signalAll();
+            }
+        }
+
+        /**
+         * Lets the readers holding the oldest chunk go on with their own download, which frees
+         * the chunk for the readers ahead of them.
+         */
+        private void detachSlowest() {
+            readers.removeIf(reader -> {
+                if (reader.chunk != firstChunk) {
+                    return false;
+                }
+                reader.detached = true;
+                reader.position = reader.chunk * chunkSize + reader.offset;
+                return true;
+            });
+            if (readers.isEmpty()) {
+                done = true;
+                downloads.remove(key, this);
+                if (!producing) {
+                    releaseAll();
+                }
+            } else {
+                releaseConsumed();
+            }
+            changed.signalAll();
+        }
+
+        void leave(Reader reader) {
+            lock.lock();
+            try {
+                if (!readers.remove(reader)) {
+                    return;
+                }
+                if (readers.isEmpty()) {
+                    done = true;
+                    downloads.remove(key, this);
+                    if (!producing) {
+                        releaseAll();
+                    }
+                } else {
+                    releaseConsumed();
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void releaseAll() {
+            chunks.forEach(chunk -> bufferPool.release(chunk.buffer()));
+            chunks.clear();
+            if (upstream != null) {
+                try {
+                    upstream.close();
+                } catch (IOException ex) {
+                    // the download is abandoned, there is nothing left to read
+                }
+                upstream = null;
+            }
+        }
+
+        /**
+         * @return {@code false} if the deadline passed
+         */
+        private boolean awaitChange(long deadline) throws InterruptedIOException {
+            try {
+                if (deadline == Long.MAX_VALUE) {
+                    changed.await();
+                    return true;
+                }
+                var remaining = deadline - System.nanoTime();
+                return remaining > 0 && changed.awaitNanos(remaining) > 0;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for shared download");
+            }
+        }
+    }
+
+    private static final class Reader extends InputStream {
+
+        private final SharedDownload download;
+        private long chunk;
+        private int offset;
+        private boolean detached;
+        private long position;
+        private InputStream own;
+        private boolean closed;
+
+        Reader(SharedDownload download) {
+            this.download = download;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var single = new byte[1];
+            var count = read(single, 0, 1);
+            return count == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            if (own == null) {
+                var count = download.read(this, b, off, len);
+                if (count != DETACHED) {
+                    return count;
+                }
+                own = download.opener.open(position);
+            }
+            return own.read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                download.leave(this);
+                if (own != null) {
+                    own.close();
+                }
+            }
+        }
+    }
+
+    private record Chunk(byte[] buffer, int length) {
+
+    }
+}
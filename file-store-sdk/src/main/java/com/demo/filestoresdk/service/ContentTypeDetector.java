@@ -0,0 +1,108 @@
+package com.demo.filestoresdk.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import org.apache.tika.Tika;
+import org.apache.tika.mime.MimeTypes;
+
+/**
+ * Content type detection from the file name and a bounded prefix of the content. Only the prefix
+ * which magic byte detection needs is read, into a buffer leased from the {@link BufferPool},
+ * and the returned stream replays it in front of the rest of the data, so nothing beyond the
+ * prefix is ever buffered or spilled.
+ * Name only detections are cached.
+ */
+public class ContentTypeDetector {
+
+    private static final long DEFAULT_NAME_CACHE_SIZE = 10_000;
+
+    private final Tika tika = new Tika();
+    private final int prefixSize;
+    private final Cache<String, String> nameCache;
+    private final BufferPool bufferPool;
+
+    public ContentTypeDetector(BufferPool bufferPool) {
+        this(bufferPool, MimeTypes.getDefaultMimeTypes().getMinLength(), DEFAULT_NAME_CACHE_SIZE);
+    }
+
+    public ContentTypeDetector(BufferPool bufferPool, int prefixSize, long nameCacheSize) {
+        this.bufferPool = bufferPool;
+        this.prefixSize = prefixSize;
+        this.nameCache = Caffeine.newBuilder().maximumSize(nameCacheSize).build();
+    }
+
+    public String detect(String name) {
+        if (name == null) {
+            return tika.detect((String) null);
+        }
+        return nameCache.get(name, tika::detect);
+    }
+
+    /**
+     * Reads up to the prefix size from {@code data} and detects its content type. The caller must
+     * read the content through {@link Detection#getStream()} and close the detection once done
+     * with it to return the prefix buffer to the pool.
+     */
+    public Detection detect(InputStream data, String name) throws IOException {
+        var buffer = acquire();
+        try {
+            var length = data.readNBytes(buffer, 0, prefixSize);
+            var contentType = length == 0
+                ? detect(name)
+                : tika.detect(new ByteArrayInputStream(buffer, 0, length), name);
+            var stream = new SequenceInputStream(new ByteArrayInputStream(buffer, 0, length), data);
+            return new Detection(contentType, stream, buffer);
+        } catch (IOException | RuntimeException e) {
+            release(buffer);
+            throw e;
+        }
+    }
+
+    private byte[] acquire() throws InterruptedIOException {
+        try {
+            return bufferPool.acquire(prefixSize);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a buffer");
+        }
+    }
+
+    private void release(byte[] buffer) {
+        bufferPool.release(buffer);
+    }
+
+    public final class Detection implements Closeable {
+
+        private final String contentType;
+        private final InputStream stream;
+        private byte[] buffer;
+
+        private Detection(String contentType, InputStream stream, byte[] buffer) {
+            this.contentType = contentType;
+            this.stream = stream;
+            this.buffer = buffer;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public InputStream getStream() {
+            return stream;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (buffer != null) {
+                release(buffer);
+                buffer = null;
+            }
+        }
+    }
+}
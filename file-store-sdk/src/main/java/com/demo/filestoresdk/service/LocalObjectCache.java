@@ -0,0 +1,233 @@
+package com.demo.filestoresdk.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.io.ByteStreams;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Read-through cache of object content on local disk. Entries are keyed by the ETag of the
+ * content, so an overwritten object simply misses and identical content is stored once. Every
+ * fill writes a file of its own named {@code <key>.<fill id>}, so removing an entry deletes only
+ * its own file and never a refill of the same content. The total size of the cached files is
+ * bounded by {@code maxBytes}, with size aware eviction of the least valuable entries. Concurrent
+ * misses of the same content share a single fetch. Files following the naming scheme are reused
+ * on startup, other files in the directory are left alone. Consumers which open a cached file
+ * only later by its name get a hard link under {@code links/} instead, which an eviction doesn't
+ * remove. The cache is disabled when no directory is configured.
+ */
+@Slf4j
+public class LocalObjectCache {
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String LINK_DIRECTORY = "links";
+    // links are named <creation millis>-<id>, a hard link shares the timestamps of the file
+    private static final Pattern LINK_NAME = Pattern.compile("(\\d+)-[0-9a-f]{32}");
+    private static final Duration LINK_TTL = Duration.ofMinutes(1);
+    private static final Pattern FILE_NAME = Pattern.compile(
+        "([A-Za-z0-9_-]+)\\.[0-9a-f]{32}(" + Pattern.quote(TEMP_FILE_SUFFIX) + ")?");
+
+    private final Path directory;
+    private final long maxObjectSize;
+    private final Cache<String, Path> cache;
+    private final SingleFlight<String, Optional<Path>> fills = new SingleFlight<>();
+    private final AtomicLong lastLinkSweep = new AtomicLong();
+
+    public LocalObjectCache(String directory, long maxBytes, long maxObjectSize) {
+        this.maxObjectSize = Math.min(maxObjectSize, maxBytes);
+        if (StringUtils.isBlank(directory) || maxBytes <= 0 || maxObjectSize <= 0) {
+            this.directory = null;
+            this.cache = null;
+            return;
+        }
+        this.directory = Path.of(directory);
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String key, Path file) -> weight(file))
+            .removalListener((String key, Path file, RemovalCause cause) -> delete(file))
+            .recordStats()
+            .build();
+        restore();
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public boolean isCacheable(String etag, long size) {
+        return isEnabled() && StringUtils.isNotBlank(etag) && size >= 0 && size <= maxObjectSize;
+    }
+
+    /**
+     * Returns the local copy of the content with the given ETag, fetching it with
+     * {@code loader} on a miss.
+     *
+     * @return the cached file or empty if the content isn't cacheable or couldn't be fetched
+     */
+    public Optional<Path> get(String etag, long size, ContentLoader loader) {
+        if (!isCacheable(etag, size)) {
+            return Optional.empty();
+        }
+        var key = key(etag);
+        var cached = cache.getIfPresent(key);
+        if (cached != null && Files.exists(cached)) {
+            return Optional.of(cached);
+        }
+        // concurrent misses of the same content share one fetch
+        return fills.execute(key, () -> fill(key, etag, size, loader));
+    }
+
+    private Optional<Path> fill(String key, String etag, long size, ContentLoader loader) {
+        Path tempFile = null;
+        try {
+            var fileName = key + "." + UUID.randomUUID().toString().replace("-", "");
+            tempFile = Files.createFile(directory.resolve(fileName + TEMP_FILE_SUFFIX));
+            try (var outputStream = Files.newOutputStream(tempFile)) {
+                loader.load(outputStream);
+            }
+            var loaded = Files.size(tempFile);
+            if (loaded != size) {
+                throw new IOException("Expected " + size + " bytes but got " + loaded);
+            }
+            var file = directory.resolve(fileName);
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+            cache.put(key, file);
+            return Optional.of(file);
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Failed to cache content {} locally", etag, ex);
+            if (tempFile != null) {
+                delete(tempFile);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Hard links a cached file, so a consumer which opens it only later by its name still finds
+     * it after an eviction. The consumer has to open the link within {@code LINK_TTL}, older
+     * links are removed with the next link created.
+     *
+     * @return the link or empty if the file is gone or can't be linked
+     */
+    public Optional<Path> link(Path file) {
+        var now = System.currentTimeMillis();
+        sweepLinks(now);
+        var link = directory.resolve(LINK_DIRECTORY)
+            .resolve(now + "-" + UUID.randomUUID().toString().replace("-", ""));
+        try {
+            return Optional.of(Files.createLink(link, file));
+        } catch (IOException | UnsupportedOperationException ex) {
+            log.debug("Failed to link cached file {}", file, ex);
+            return Optional.empty();
+        }
+    }
+
+    private void sweepLinks(long now) {
+        var last = lastLinkSweep.get();
+        if (now - last < LINK_TTL.toMillis() || !lastLinkSweep.compareAndSet(last, now)) {
+            return;
+        }
+        try (Stream<Path> links = Files.list(directory.resolve(LINK_DIRECTORY))) {
+            links.forEach(link -> {
+                var matcher = LINK_NAME.matcher(link.getFileName().toString());
+                if (matcher.matches()
+                    && now - Long.parseLong(matcher.group(1)) > LINK_TTL.toMillis()) {
+                    delete(link);
+                }
+            });
+        } catch (IOException ex) {
+            log.warn("Failed to sweep the links of the local object cache", ex);
+        }
+    }
+
+    /**
+     * Opens the byte range [offset, offset + length) of a cached file.
+     */
+    public InputStream openRange(Path file, long offset, long length) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+            return ByteStreams.limit(Channels.newInputStream(channel), length);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    public void bindTo(MeterRegistry meterRegistry, String cacheName) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName);
+        }
+    }
+
+    private void restore() {
+        try {
+            Files.createDirectories(directory.resolve(LINK_DIRECTORY));
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(Files::isRegularFile).forEach(file -> {
+                    var matcher = FILE_NAME.matcher(file.getFileName().toString());
+                    if (!matcher.matches()) {
+                        return;
+                    }
+                    if (matcher.group(2) != null) {
+                        // left behind by a fill which didn't finish
+                        delete(file);
+                    } else {
+                        cache.put(matcher.group(1), file);
+                    }
+                });
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open local object cache " + directory, ex);
+        }
+    }
+
+    private static String key(String etag) {
+        return StringUtils.strip(etag, "\"").replaceAll("[^A-Za-z0-9-]", "_");
+    }
+
+    private static int weight(Path file) {
+        try {
+            return (int) Math.min(Files.size(file), Integer.MAX_VALUE);
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Failed to delete cached file {}", file, ex);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ContentLoader {
+
+        void load(OutputStream outputStream) throws Exception;
+    }
+}
@@ -7,6 +7,7 @@ import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.GET_DATA
 import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.GET_FILES_NAME_FROM_BUCKET;
 import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.GET_METADATA_ERROR;
 import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.GET_PRESIGNED_ERROR;
+import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.INVALID_COPY_DESTINATION_ERROR;
 import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.REMOVE_ERROR;
 import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.SAVE_ERROR_CODE;
 import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.SCAN_FILE_NOT_FOUND;
@@ -14,57 +15,130 @@ import static com.demo.filestoresdk.utils.FileTools.PATH_DELIMITER;
 import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
 
 import com.demo.filestoresdk.configutation.MinioClientData;
+import com.demo.filestoresdk.model.BulkCopyResult;
 import com.demo.filestoresdk.model.DownloadFile;
 import com.demo.filestoresdk.model.FileDto;
 import com.demo.filestoresdk.model.FileStoreDto;
 import com.demo.filestoresdk.model.FileUri;
+import com.demo.filestoresdk.model.IncompleteUpload;
+import com.demo.filestoresdk.model.ObjectListingPage;
+import com.demo.filestoresdk.model.ObjectSummary;
+import com.demo.filestoresdk.model.UploadedPart;
+import com.demo.reststarter.exception.BadRequestRestException;
 import com.demo.reststarter.exception.InternalErrorException;
 import com.demo.reststarter.exception.NotFoundException;
+import com.google.common.io.CountingInputStream;
 import io.minio.CopyObjectArgs;
 import io.minio.CopySource;
 import io.minio.GetObjectArgs;
 import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.ListObjectsArgs;
 import io.minio.MinioClient;
+import io.minio.ObjectWriteResponse;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
-import io.minio.RemoveObjectsArgs;
 import io.minio.Result;
 import io.minio.StatObjectArgs;
 import io.minio.StatObjectResponse;
 import io.minio.errors.ErrorResponseException;
 import io.minio.errors.MinioException;
 import io.minio.http.Method;
-import io.minio.messages.DeleteObject;
 import io.minio.messages.Item;
-import java.io.BufferedInputStream;
+import io.minio.messages.ListMultipartUploadsResult;
+import io.minio.messages.ListBucketResultV2;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.GeneralSecurityException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.tika.Tika;
-import org.apache.tika.io.TikaInputStream;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 @Slf4j
-@RequiredArgsConstructor
 @Service
 public class MinioStoreService {
 
-    private final Tika tika = new Tika();
+    private static final int COALESCING_CHUNK_SIZE = 256 * 1024;
+    private static final Duration COALESCING_MAX_WAIT = Duration.ofSeconds(1);
+    private static final int MAX_LIST_KEYS = 1000;
 
     private final MinioClient minioClient;
     private final MinioClientData minioClientData;
+    private final MultipartMinioAsyncClient multipartMinioAsyncClient;
+    private final ParallelMultipartUploader parallelMultipartUploader;
+    private final ParallelObjectRemover parallelObjectRemover;
+    private final ParallelMultipartCopier parallelMultipartCopier;
+    private final ObjectStatCache objectStatCache;
+    private final ContentTypeDetector contentTypeDetector;
+    private final BufferPool bufferPool;
+    private final LocalObjectCache localObjectCache;
+    private final CoalescingDownloads coalescingDownloads;
+    private final SingleFlight<String, StatObjectResponse> statFlights = new SingleFlight<>();
+
+    public MinioStoreService(MinioClient minioClient,
+        MultipartMinioAsyncClient multipartMinioAsyncClient, MinioClientData minioClientData,
+        ContentTypeDetector contentTypeDetector, BufferPool bufferPool) {
+        this.minioClient = minioClient;
+        this.contentTypeDetector = contentTypeDetector;
+        this.bufferPool = bufferPool;
+        this.minioClientData = minioClientData;
+        this.multipartMinioAsyncClient = multipartMinioAsyncClient;
+        this.parallelMultipartUploader = new ParallelMultipartUploader(multipartMinioAsyncClient,
+            minioClientData, bufferPool);
+        this.parallelObjectRemover = new ParallelObjectRemover(multipartMinioAsyncClient,
+            minioClientData);
+        this.parallelMultipartCopier = new ParallelMultipartCopier(multipartMinioAsyncClient,
+            minioClientData);
+        this.objectStatCache = new ObjectStatCache(minioClientData.getStatCacheMaxSize(),
+            minioClientData.getStatCacheTtl());
+        this.localObjectCache = new LocalObjectCache(minioClientData.getLocalCacheDirectory(),
+            minioClientData.getLocalCacheMaxBytes(), minioClientData.getLocalCacheMaxObjectSize());
+        var coalescingBufferSize = minioClientData.getDownloadCoalescingBufferSize();
+        this.coalescingDownloads = coalescingBufferSize > 0
+            ? new CoalescingDownloads(bufferPool,
+                Math.min(COALESCING_CHUNK_SIZE, coalescingBufferSize),
+                Math.max(1, coalescingBufferSize / COALESCING_CHUNK_SIZE), COALESCING_MAX_WAIT)
+            : null;
+    }
+
+    public ContentTypeDetector getContentTypeDetector() {
+        return contentTypeDetector;
+    }
+
+    public LocalObjectCache getLocalObjectCache() {
+        return localObjectCache;
+    }
+
+    public ObjectStatCache getObjectStatCache() {
+        return objectStatCache;
+    }
 
     public String getBucketName() {
         return minioClientData.getBucketName();
@@ -77,7 +151,7 @@ public class MinioStoreService {
     public FileStoreDto putObjectToStorage(InputStream data, Long size, FileUri fileUri) {
         return putObjectToStorage(minioClientData.getBucketName(), data, size,
             fileUri.buildFilePath(),
-            fileUri.getFullPackageName());
+            null, fileUri.getFullPackageName());
     }
 
     public FileStoreDto putObjectToStorage(InputStream data, Long size, String filePath) {
@@ -86,7 +160,16 @@ public class MinioStoreService {
 
     public FileStoreDto putObjectToStorage(String bucketName, InputStream data, Long size,
         String filePath) {
-        return putObjectToStorage(bucketName, data, size, filePath, null);
+        return putObjectToStorage(bucketName, data, size, filePath, null, null);
+    }
+
+    /**
+     * Stores the object detecting its content type from the content and {@code fileName} rather
+     * than from the object path, for objects whose keys don't carry the original name.
+     */
+    public FileStoreDto putObjectToStorage(String bucketName, InputStream data, Long size,
+        String filePath, String fileName) {
+        return putObjectToStorage(bucketName, data, size, filePath, fileName, null);
     }
 
     private FileStoreDto putObjectToStorage(
@@ -94,10 +177,14 @@ public class MinioStoreService {
         InputStream data,
         Long size,
         String filePath,
+        String fileName,
         String fullPackageName) {
-        try {
-            var bufferedInputStream = new BufferedInputStream(data);
-            var contentType = retrieveContentType(bufferedInputStream, filePath);
+        // counts the bytes actually streamed, so callers don't need a stat after the upload
+        var countingInputStream = new CountingInputStream(data);
+        try (var detection = contentTypeDetector.detect(countingInputStream,
+            StringUtils.defaultIfBlank(fileName, filePath))) {
+            var contentStream = detection.getStream();
+            var contentType = detection.getContentType();
             var fileStoreDto = new FileStoreDto();
 
             var headers = new HashMap<String, String>();
@@ -106,10 +193,21 @@ public class MinioStoreService {
                     "attachment; fileName=\"" + fullPackageName + "\"");
             }
 
+            if (parallelMultipartUploader.isEnabled()) {
+                var response = parallelMultipartUploader.upload(bucketName, filePath,
+                    contentStream, contentType, headers);
+                populateFileStoreDto(fileStoreDto, response, filePath,
+                    countingInputStream.getCount(), contentType);
+                objectStatCache.invalidate(bucketName, getRelativeFilePath(filePath));
+                return fileStoreDto;
+            }
+
             var objectSize = Optional.ofNullable(size).orElse(-1L);
+            // the content can't be rewound, so only an attempt which read none of it is retried
+            var attemptStream = new CountingInputStream(contentStream);
 
             var putObjectArgs = PutObjectArgs.builder().bucket(bucketName).object(filePath)
-                .stream(bufferedInputStream, objectSize, minioClientData.getMinPartSize())
+                .stream(attemptStream, objectSize, minioClientData.getMinPartSize())
                 .contentType(contentType)
                 .headers(headers)
                 .build();
@@ -121,10 +219,19 @@ public class MinioStoreService {
                 .build();
 
             template.execute(ctx -> {
-                minioClient.putObject(putObjectArgs);
-                fileStoreDto.setDownloadUri(PATH_DELIMITER + filePath);
-                fileStoreDto.setFileSize(size);
-                fileStoreDto.setContentType(contentType);
+                ObjectWriteResponse response;
+                try {
+                    response = minioClient.putObject(putObjectArgs);
+                } catch (IOException ex) {
+                    if (attemptStream.getCount() > 0) {
+                        // a retry would store only the rest of the content
+                        throw new InternalErrorException(SAVE_ERROR_CODE, ex);
+                    }
+                    throw ex;
+                }
+                populateFileStoreDto(fileStoreDto, response, filePath,
+                    countingInputStream.getCount(), contentType);
+                objectStatCache.invalidate(bucketName, getRelativeFilePath(filePath));
                 return true;
             });
             return fileStoreDto;
@@ -134,8 +241,104 @@ public class MinioStoreService {
         }
     }
 
+    private void populateFileStoreDto(FileStoreDto fileStoreDto, ObjectWriteResponse response,
+        String filePath, long size, String contentType) {
+        fileStoreDto.setDownloadUri(PATH_DELIMITER + filePath);
+        fileStoreDto.setFileSize(size);
+        fileStoreDto.setContentType(contentType);
+        fileStoreDto.setEtag(response.etag());
+        fileStoreDto.setVersionId(response.versionId());
+    }
+
+    public int getUploadPartSize() {
+        return parallelMultipartUploader.getPartSize();
+    }
+
+    public String initiateMultipartUpload(String bucketName, String filePath,
+        String contentType) {
+        try {
+            return parallelMultipartUploader.initiate(bucketName, getRelativeFilePath(filePath),
+                contentType);
+        } catch (Exception e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new InternalErrorException(SAVE_ERROR_CODE, e);
+        }
+    }
+
+    /**
+     * Stores a part of a multipart upload, {@code last} tells whether the part may be the last
+     * one and therefore smaller than the S3 minimum part size.
+     */
+    public UploadedPart uploadPart(String bucketName, String filePath, String uploadId,
+        int partNumber, InputStream data, boolean last) {
+        try {
+            return parallelMultipartUploader.uploadPart(bucketName, getRelativeFilePath(filePath),
+                uploadId, partNumber, data, last);
+        } catch (BadRequestRestException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new InternalErrorException(SAVE_ERROR_CODE, e);
+        }
+    }
+
+    public ObjectWriteResponse completeMultipartUpload(String bucketName, String filePath,
+        String uploadId, List<UploadedPart> parts) {
+        try {
+            var response = parallelMultipartUploader.complete(bucketName,
+                getRelativeFilePath(filePath), uploadId, parts);
+            objectStatCache.invalidate(bucketName, getRelativeFilePath(filePath));
+            return response;
+        } catch (Exception e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new InternalErrorException(SAVE_ERROR_CODE, e);
+        }
+    }
+
+    public void abortMultipartUpload(String bucketName, String filePath, String uploadId) {
+        try {
+            parallelMultipartUploader.abort(bucketName, getRelativeFilePath(filePath), uploadId);
+        } catch (Exception e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new InternalErrorException(REMOVE_ERROR, e);
+        }
+    }
+
     private DownloadFile getFileFromStorage(String bucketName, String filePath,
         StatObjectResponse objectStat) {
+        var localFile = getLocalCopy(bucketName, filePath, objectStat);
+        if (localFile.isPresent()) {
+            try {
+                // the open channel keeps the content readable if the copy is evicted
+                var channel = FileChannel.open(localFile.get(), StandardOpenOption.READ);
+                return DownloadFile.builder()
+                    .objectStat(objectStat)
+                    .inputStream(Channels.newInputStream(channel))
+                    .build();
+            } catch (IOException ex) {
+                // evicted in the meantime, falls back to the storage
+                log.debug("Failed to open cached copy of {}", filePath, ex);
+            }
+        }
+        if (isRangedDownload(objectStat)) {
+            return DownloadFile.builder()
+                .objectStat(objectStat)
+                .inputStream(new RangedObjectInputStream(multipartMinioAsyncClient, bufferPool,
+                    bucketName, getRelativeFilePath(filePath), objectStat.etag(),
+                    objectStat.size(),
+                    minioClientData.getDownloadRangeSize(),
+                    minioClientData.getDownloadParallelism()))
+                .build();
+        }
+        if (coalescingDownloads != null && StringUtils.isNotBlank(objectStat.etag())) {
+            var objectName = getRelativeFilePath(filePath);
+            return DownloadFile.builder()
+                .objectStat(objectStat)
+                .inputStream(coalescingDownloads.open(
+                    bucketName + "/" + objectName + "@" + objectStat.etag(),
+                    offset -> openObject(bucketName, objectName, objectStat.etag(), offset)))
+                .build();
+        }
         try {
             var getObjectArgs = GetObjectArgs.builder()
                 .bucket(bucketName)
@@ -151,6 +354,12 @@ public class MinioStoreService {
         }
     }
 
+    private boolean isRangedDownload(StatObjectResponse objectStat) {
+        return minioClientData.getDownloadParallelism() > 1
+            && minioClientData.getDownloadRangeSize() > 0
+            && objectStat.size() >= minioClientData.getDownloadParallelThreshold();
+    }
+
     public DownloadFile getFileFromStorage(String filePath) {
         var objectStat = getFileStat(filePath);
 
@@ -162,6 +371,91 @@ public class MinioStoreService {
         return getFileFromStorage(bucketName, filePath, objectStat);
     }
 
+    /**
+     * Opens the byte range [offset, offset + length) of an object. When an ETag is given the
+     * range is only served if the object still has that ETag.
+     */
+    public InputStream getFileRangeFromStorage(String bucketName, String filePath, long offset,
+        long length, String etag) {
+        if (etag != null && localObjectCache.isEnabled()) {
+            var objectStat = getFileStat(bucketName, filePath);
+            var localFile = etag.equals(objectStat.etag())
+                ? getLocalCopy(bucketName, filePath, objectStat)
+                : Optional.<Path>empty();
+            if (localFile.isPresent()) {
+                try {
+                    return localObjectCache.openRange(localFile.get(), offset, length);
+                } catch (IOException ex) {
+                    log.debug("Failed to open cached copy of {}", filePath, ex);
+                }
+            }
+        }
+        try {
+            var getObjectArgs = GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(getRelativeFilePath(filePath))
+                .offset(offset)
+                .length(length)
+                .matchETag(etag)
+                .build();
+            return minioClient.getObject(getObjectArgs);
+        } catch (MinioException | GeneralSecurityException | IOException ex) {
+            log.error(ex.getLocalizedMessage(), ex);
+            throw new InternalErrorException(GET_DATA_ERROR, ex);
+        }
+    }
+
+    private InputStream openObject(String bucketName, String objectName, String etag,
+        long offset) throws IOException {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .offset(offset > 0 ? offset : null)
+                .matchETag(etag)
+                .build());
+        } catch (MinioException | GeneralSecurityException ex) {
+            throw new IOException(ex.getLocalizedMessage(), ex);
+        }
+    }
+
+    /**
+     * Returns the local copy of the object, fetching it into the local object cache on a miss.
+     * The cached content is looked up by the current ETag, so a changed object is fetched again.
+     */
+    /**
+     * Returns a hard link to the local copy of the object, fetching it into the local object
+     * cache on a miss, for a consumer which opens the content by name later on, such as the
+     * sendfile of the servlet container. The link outlives an eviction of the copy, see
+     * {@link LocalObjectCache#link}.
+     *
+     * @return the link or empty if the object no longer has the given ETag or has no local copy
+     */
+    public Optional<Path> linkLocalCopy(String bucketName, String filePath, String etag) {
+        if (!localObjectCache.isEnabled()) {
+            return Optional.empty();
+        }
+        var objectStat = getFileStat(bucketName, filePath);
+        if (!StringUtils.equals(objectStat.etag(), etag)) {
+            return Optional.empty();
+        }
+        return getLocalCopy(bucketName, filePath, objectStat).flatMap(localObjectCache::link);
+    }
+
+    private Optional<Path> getLocalCopy(String bucketName, String filePath,
+        StatObjectResponse objectStat) {
+        return localObjectCache.get(objectStat.etag(), objectStat.size(), outputStream -> {
+            var getObjectArgs = GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(getRelativeFilePath(filePath))
+                .matchETag(objectStat.etag())
+                .build();
+            try (var inputStream = minioClient.getObject(getObjectArgs)) {
+                inputStream.transferTo(outputStream);
+            }
+        });
+    }
+
     private String getRelativeFilePath(String filePath) {
         return filePath != null && filePath.startsWith("/")
             ? filePath.replaceFirst("/", "")
@@ -173,11 +467,18 @@ public class MinioStoreService {
     }
 
     public StatObjectResponse getFileStat(String bucketName, String filePath) {
+        var objectName = getRelativeFilePath(filePath);
+        // concurrent stats of the same object share one request
+        return objectStatCache.get(bucketName, objectName, () -> statFlights.execute(
+            bucketName + "/" + objectName, () -> statObject(bucketName, objectName)));
+    }
+
+    private StatObjectResponse statObject(String bucketName, String objectName) {
         final StatObjectResponse[] response = new StatObjectResponse[1];
         try {
             var statObjectArgs = StatObjectArgs.builder()
                 .bucket(bucketName)
-                .object(getRelativeFilePath(filePath))
+                .object(objectName)
                 .build();
             RetryTemplate template = RetryTemplate.builder()
                 .maxAttempts(minioClientData.getRetryMaxAttempts())
@@ -214,33 +515,32 @@ public class MinioStoreService {
                 .object(getRelativeFilePath(filePath))
                 .build();
             minioClient.removeObject(removeObjectArgs);
+            objectStatCache.invalidate(bucketName, getRelativeFilePath(filePath));
         } catch (MinioException | GeneralSecurityException | IOException e) {
             log.error(e.getLocalizedMessage(), e);
             throw new InternalErrorException(REMOVE_ERROR, e);
         }
     }
 
-    public void removeObjectsFromBucket(List<String> objectIds) {
-        removeObjectsFromBucket(minioClientData.getBucketName(), objectIds);
+    public List<String> removeObjectsFromBucket(List<String> objectIds) {
+        return removeObjectsFromBucket(minioClientData.getBucketName(), objectIds);
     }
 
-    public void removeObjectsFromBucket(String bucketName, List<String> objectIds) {
+    /**
+     * Removes the objects with concurrent multi-object delete requests, see
+     * {@link ParallelObjectRemover}.
+     *
+     * @return the names of the objects which couldn't be removed
+     */
+    public List<String> removeObjectsFromBucket(String bucketName, List<String> objectIds) {
+        var objectNames = objectIds.stream()
+            .map(this::getRelativeFilePath)
+            .toList();
+        objectStatCache.invalidate(bucketName, objectNames);
         try {
-            var deleteObjects = objectIds.stream()
-                .map(this::getRelativeFilePath)
-                .map(DeleteObject::new)
-                .toList();
-            var removeObjectsArgs = RemoveObjectsArgs.builder()
-                .bucket(bucketName)
-                .objects(deleteObjects)
-                .build();
-            for (var errorResult : minioClient.removeObjects(removeObjectsArgs)) {
-                var error = errorResult.get();
-                log.error("Failed to remove object'" + error.objectName() + "'. Error:"
-                    + error.message());
-            }
-        } catch (MinioException | GeneralSecurityException | IOException ex) {
-            log.error(ex.getLocalizedMessage(), ex);
+            return parallelObjectRemover.remove(bucketName, objectNames);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
             throw new InternalErrorException(REMOVE_ERROR, ex);
         }
     }
@@ -287,18 +587,35 @@ public class MinioStoreService {
         copyFile(srcPath, srcBucketName, dstPath, dstBucket);
     }
 
+    /**
+     * Copies the object server side. Objects bigger than {@code copyPartSize} are copied as
+     * parallel multipart copies, see {@link ParallelMultipartCopier}, smaller ones with a single
+     * CopyObject.
+     */
     public void copyFile(String srcPath, String srcBucket, String dstPath, String dstBucket) {
+        var srcObject = getRelativeFilePath(srcPath);
+        var dstObject = getRelativeFilePath(dstPath);
         try {
-            var copySource = CopySource.builder()
-                .bucket(srcBucket)
-                .object(getRelativeFilePath(srcPath))
-                .build();
-            var copyObjectArgs = CopyObjectArgs.builder()
-                .bucket(dstBucket)
-                .object(getRelativeFilePath(dstPath))
-                .source(copySource)
-                .build();
-            minioClient.copyObject(copyObjectArgs);
+            var srcStat = statObject(srcBucket, srcObject);
+            if (srcStat.size() > minioClientData.getCopyPartSize()) {
+                parallelMultipartCopier.copy(srcBucket, srcObject, srcStat, dstBucket, dstObject);
+            } else {
+                var copySource = CopySource.builder()
+                    .bucket(srcBucket)
+                    .object(srcObject)
+                    .matchETag(srcStat.etag())
+                    .build();
+                var copyObjectArgs = CopyObjectArgs.builder()
+                    .bucket(dstBucket)
+                    .object(dstObject)
+                    .source(copySource)
+                    .build();
+                minioClient.copyObject(copyObjectArgs);
+            }
+            objectStatCache.invalidate(dstBucket, dstObject);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InternalErrorException(COPY_DATA_ERROR, ex);
         } catch (MinioException | GeneralSecurityException | IOException ex) {
             log.error(ex.getLocalizedMessage(), ex);
             throw new InternalErrorException(COPY_DATA_ERROR, ex);
@@ -314,6 +631,142 @@ public class MinioStoreService {
         removeObjectFromBucket(srcPath);
     }
 
+    /**
+     * Copies all objects under {@code srcPrefix} to the same keys under {@code dstPrefix} of the
+     * destination bucket, see {@link #copyObjects(String, List, MinioStoreService, String,
+     * String, boolean)}. The source is listed while the objects are copied.
+     */
+    public BulkCopyResult copyObjects(String srcBucket, String srcPrefix,
+        MinioStoreService target, String dstBucket, String dstPrefix, boolean move) {
+        var sourcePrefix = StringUtils.defaultString(srcPrefix);
+        var targetPrefix = StringUtils.defaultString(dstPrefix);
+        var sameBucket = isSameBucket(srcBucket, target, dstBucket);
+        if (sameBucket && (targetPrefix.startsWith(sourcePrefix)
+            || sourcePrefix.startsWith(targetPrefix))) {
+            // the listing would come across the copies, or a copy would overwrite a source
+            // which isn't copied yet, e.g. data/aab onto data/ab for data/a to data/
+            throw new BadRequestRestException(INVALID_COPY_DESTINATION_ERROR);
+        }
+        try (var objects = streamObjects(srcBucket, sourcePrefix, true)) {
+            return copyObjects(srcBucket, objects.map(ObjectSummary::getObjectName),
+                objectName -> targetPrefix + objectName.substring(sourcePrefix.length()),
+                target, dstBucket, sameBucket, move);
+        }
+    }
+
+    /**
+     * Copies the objects to {@code dstPrefix} followed by their key in the destination bucket,
+     * removing the sources after they have been copied when {@code move} is set. Up to
+     * {@code bulkCopyParallelism} objects are copied at once. When {@code target} is this
+     * service the objects are copied server side, otherwise, e.g. for a named client of
+     * another endpoint, they are streamed from this service to the target.
+     */
+    public BulkCopyResult copyObjects(String srcBucket, List<String> objectNames,
+        MinioStoreService target, String dstBucket, String dstPrefix, boolean move) {
+        var targetPrefix = StringUtils.defaultString(dstPrefix);
+        var sameBucket = isSameBucket(srcBucket, target, dstBucket);
+        var sourceObjects = objectNames.stream().map(this::getRelativeFilePath).toList();
+        if (sameBucket) {
+            // a copy onto a listed object would overwrite it before it is copied itself
+            var sourceSet = new HashSet<>(sourceObjects);
+            if (sourceObjects.stream()
+                .anyMatch(objectName -> sourceSet.contains(targetPrefix + objectName))) {
+                throw new BadRequestRestException(INVALID_COPY_DESTINATION_ERROR);
+            }
+        }
+        return copyObjects(srcBucket, sourceObjects.stream(),
+            objectName -> targetPrefix + objectName, target, dstBucket, sameBucket, move);
+    }
+
+    /**
+     * Whether the destination bucket is the source bucket, also when {@code target} is another
+     * service, e.g. a named client, of the same endpoint.
+     */
+    public boolean isSameBucket(String srcBucket, MinioStoreService target, String dstBucket) {
+        return srcBucket.equals(dstBucket) && (target == this || StringUtils.equalsIgnoreCase(
+            StringUtils.removeEnd(minioClientData.getUrl(), "/"),
+            StringUtils.removeEnd(target.minioClientData.getUrl(), "/")));
+    }
+
+    private BulkCopyResult copyObjects(String srcBucket, Stream<String> objectNames,
+        UnaryOperator<String> dstObjectName, MinioStoreService target, String dstBucket,
+        boolean sameBucket, boolean move) {
+        var parallelism = Math.max(1, minioClientData.getBulkCopyParallelism());
+        var executor = Executors.newFixedThreadPool(parallelism,
+            new CustomizableThreadFactory("bulk-copy-"));
+        var inFlight = new Semaphore(parallelism);
+        var copiedCount = new AtomicLong();
+        var removedCount = 0L;
+        var copied = new ConcurrentLinkedQueue<String>();
+        var failed = new ConcurrentLinkedQueue<String>();
+        try {
+            var iterator = objectNames.iterator();
+            while (iterator.hasNext()) {
+                var objectName = iterator.next();
+                var dstObject = dstObjectName.apply(objectName);
+                if (sameBucket && objectName.equals(dstObject)) {
+                    // neither copied onto itself nor removed as a moved source
+                    log.error("Refused to copy object '{}' onto itself", objectName);
+                    failed.add(objectName);
+                    continue;
+                }
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        copyObject(srcBucket, objectName, target, dstBucket, dstObject);
+                        copiedCount.incrementAndGet();
+                        if (move) {
+                            copied.add(objectName);
+                        }
+                    } catch (Exception ex) {
+                        log.error("Failed to copy object '{}'", objectName, ex);
+                        failed.add(objectName);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                if (copied.size() >= ParallelObjectRemover.MAX_DELETE_KEYS) {
+                    removedCount += removeCopied(srcBucket, copied, failed);
+                }
+            }
+            inFlight.acquire(parallelism);
+            removedCount += removeCopied(srcBucket, copied, failed);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InternalErrorException(COPY_DATA_ERROR, ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        return BulkCopyResult.builder()
+            .copiedCount(copiedCount.get())
+            .removedCount(removedCount)
+            .failedObjects(List.copyOf(failed))
+            .build();
+    }
+
+    private void copyObject(String srcBucket, String srcObject, MinioStoreService target,
+        String dstBucket, String dstObject) throws IOException {
+        if (target == this) {
+            copyFile(srcObject, srcBucket, dstObject, dstBucket);
+            return;
+        }
+        var downloadFile = getFileFromStorage(srcBucket, srcObject);
+        try (var inputStream = downloadFile.getInputStream()) {
+            target.putObjectToStorage(dstBucket, inputStream,
+                downloadFile.getObjectStat().size(), dstObject);
+        }
+    }
+
+    private long removeCopied(String srcBucket, Queue<String> copied, Queue<String> failed) {
+        var objectNames = new ArrayList<String>();
+        for (var objectName = copied.poll(); objectName != null; objectName = copied.poll()) {
+            objectNames.add(objectName);
+        }
+        var notRemoved = removeObjectsFromBucket(srcBucket, objectNames);
+        failed.addAll(notRemoved);
+        return objectNames.size() - notRemoved.size();
+    }
+
     public String presignedGetObject(String objectName, Map<String, String> reqParams) {
         return getPresignedObject(objectName, reqParams, minioClientData.getExpiryTime());
     }
@@ -344,10 +797,6 @@ public class MinioStoreService {
         }
     }
 
-    private String retrieveContentType(InputStream data, String filePath) throws IOException {
-        return tika.detect(TikaInputStream.get(data), filePath);
-    }
-
     public List<String> getFilesNamesInBucket() {
         return getFilesNamesInBucket(minioClientData.getBucketName());
     }
@@ -374,14 +823,145 @@ public class MinioStoreService {
     }
 
     public List<String> getFilesNamesInBucket(String bucketName) {
+        try (var objects = streamObjects(bucketName, null, true)) {
+            return objects.map(ObjectSummary::getObjectName).toList();
+        }
+    }
+
+    /**
+     * Lists the objects under the prefix lazily. Pages are requested from the storage as the
+     * stream is consumed, so memory use doesn't depend on the number of objects.
+     */
+    public Stream<ObjectSummary> streamObjects(String bucketName, String prefix,
+        boolean recursive) {
         var listObjectsArgs = ListObjectsArgs.builder()
             .bucket(bucketName)
-            .recursive(true)
+            .prefix(prefix)
+            .recursive(recursive)
             .build();
         return StreamSupport.stream(minioClient.listObjects(listObjectsArgs).spliterator(), false)
             .map(this::getItem)
-            .map(Item::objectName)
-            .toList();
+            .filter(Predicate.not(Item::isDir))
+            .map(MinioStoreService::toObjectSummary);
+    }
+
+    /**
+     * Lists a single page of at most {@code maxKeys} objects under the prefix, starting at the
+     * continuation token returned with the previous page.
+     */
+    public ObjectListingPage listObjects(String bucketName, String prefix, boolean recursive,
+        String continuationToken, int maxKeys) {
+        try {
+            return listObjectsAsync(bucketName, prefix, recursive, null, continuationToken,
+                maxKeys).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InternalErrorException(GET_FILES_NAME_FROM_BUCKET, ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof InternalErrorException internalErrorException) {
+                throw internalErrorException;
+            }
+            throw new InternalErrorException(GET_FILES_NAME_FROM_BUCKET, ex.getCause());
+        }
+    }
+
+    /**
+     * Lists the objects under the prefix with {@code listShardFanOut} key range shards of which
+     * {@code listParallelism} are listed concurrently. The ranges are split at hex digits, so
+     * they are even for keyspaces named after hashes or UUIDs such as the SHA-256 folders of
+     * {@link com.demo.filestoresdk.utils.FileTools#getFolderName}, but any key is listed.
+     * With {@code sorted} the objects come in key order like a plain listing, otherwise in the
+     * order the pages arrive.
+     */
+    public Stream<ObjectSummary> streamObjectsSharded(String bucketName, String prefix,
+        boolean sorted) {
+        var iterator = new ShardedObjectIterator(prefix, minioClientData.getListShardFanOut(),
+            minioClientData.getListParallelism(), sorted,
+            (startAfter, continuationToken) -> listObjectsAsync(bucketName, prefix, true,
+                startAfter, continuationToken, MAX_LIST_KEYS));
+        var characteristics = sorted ? Spliterator.ORDERED | Spliterator.NONNULL
+            : Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                characteristics), false)
+            .onClose(iterator::close);
+    }
+
+    /**
+     * Lists the multipart uploads under the prefix which were initiated but neither completed
+     * nor aborted. Like {@link #streamObjects}, pages are requested as the stream is consumed.
+     */
+    public Stream<IncompleteUpload> streamIncompleteUploads(String bucketName, String prefix) {
+        return Stream.iterate(listIncompleteUploads(bucketName, prefix, null, null),
+                Objects::nonNull,
+                page -> page.isTruncated()
+                    ? listIncompleteUploads(bucketName, prefix, page.nextKeyMarker(),
+                    page.nextUploadIdMarker())
+                    : null)
+            .flatMap(page -> page.uploads().stream())
+            .map(upload -> IncompleteUpload.builder()
+                .objectName(upload.objectName())
+                .uploadId(upload.uploadId())
+                .initiated(upload.initiated())
+                .build());
+    }
+
+    private ListMultipartUploadsResult listIncompleteUploads(String bucketName, String prefix,
+        String keyMarker, String uploadIdMarker) {
+        try {
+            return multipartMinioAsyncClient.listMultipartUploads(bucketName, prefix, keyMarker,
+                uploadIdMarker, MAX_LIST_KEYS).get().result();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InternalErrorException(GET_FILES_NAME_FROM_BUCKET, ex);
+        } catch (MinioException | GeneralSecurityException | IOException
+                 | ExecutionException ex) {
+            log.error(ex.getLocalizedMessage(), ex);
+            throw new InternalErrorException(GET_FILES_NAME_FROM_BUCKET, ex);
+        }
+    }
+
+    private CompletableFuture<ObjectListingPage> listObjectsAsync(String bucketName,
+        String prefix, boolean recursive, String startAfter, String continuationToken,
+        int maxKeys) {
+        try {
+            return multipartMinioAsyncClient.listObjectsPage(bucketName, prefix,
+                    recursive ? null : PATH_DELIMITER, startAfter,
+                    StringUtils.defaultIfBlank(continuationToken, null),
+                    Math.min(Math.max(maxKeys, 1), MAX_LIST_KEYS))
+                .handle((response, ex) -> {
+                    if (ex != null) {
+                        var cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                        log.error(cause.getLocalizedMessage(), cause);
+                        throw new InternalErrorException(GET_FILES_NAME_FROM_BUCKET, cause);
+                    }
+                    return toObjectListingPage(response.result());
+                });
+        } catch (MinioException | GeneralSecurityException | IOException ex) {
+            log.error(ex.getLocalizedMessage(), ex);
+            return CompletableFuture.failedFuture(
+                new InternalErrorException(GET_FILES_NAME_FROM_BUCKET, ex));
+        }
+    }
+
+    private static ObjectListingPage toObjectListingPage(ListBucketResultV2 result) {
+        return ObjectListingPage.builder()
+            .objects(result.contents().stream()
+                .map(MinioStoreService::toObjectSummary)
+                .toList())
+            .prefixes(result.commonPrefixes().stream()
+                .map(commonPrefix -> commonPrefix.toItem().objectName())
+                .toList())
+            .nextContinuationToken(result.isTruncated() ? result.nextContinuationToken() : null)
+            .build();
+    }
+
+    private static ObjectSummary toObjectSummary(Item item) {
+        return ObjectSummary.builder()
+            .objectName(item.objectName())
+            .size(item.size())
+            .etag(StringUtils.strip(item.etag(), "\""))
+            .lastModified(item.lastModified())
+            .build();
     }
 
     private Item getItem(Result<Item> result) {
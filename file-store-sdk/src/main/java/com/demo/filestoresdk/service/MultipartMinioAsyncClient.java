@@ -0,0 +1,98 @@
+package com.demo.filestoresdk.service;
+
+import com.google.common.collect.Multimap;
+import io.minio.AbortMultipartUploadResponse;
+import io.minio.CreateMultipartUploadResponse;
+import io.minio.DeleteObjectsResponse;
+import io.minio.ListMultipartUploadsResponse;
+import io.minio.ListObjectsV2Response;
+import io.minio.ListPartsResponse;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.UploadPartCopyResponse;
+import io.minio.UploadPartResponse;
+import io.minio.errors.MinioException;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Part;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Exposes the low level S3 multipart upload API which {@link io.minio.MinioClient} only uses
+ * internally, so parts can be uploaded concurrently and uploads can be resumed. Also exposes
+ * single listing requests, so listings of objects and of incomplete multipart uploads can be
+ * paged, and multi-object deletes, so batches of keys can be removed concurrently.
+ */
+public class MultipartMinioAsyncClient extends MinioAsyncClient {
+
+    public MultipartMinioAsyncClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    public CompletableFuture<CreateMultipartUploadResponse> initiateMultipartUpload(
+        String bucketName, String objectName, Multimap<String, String> headers)
+        throws MinioException, GeneralSecurityException, IOException {
+        return createMultipartUploadAsync(bucketName, null, objectName, headers, null);
+    }
+
+    public CompletableFuture<UploadPartResponse> uploadPart(String bucketName, String objectName,
+        String uploadId, int partNumber, byte[] data, int length)
+        throws MinioException, GeneralSecurityException, IOException {
+        return uploadPartAsync(bucketName, null, objectName, data, length, uploadId, partNumber,
+            null, null);
+    }
+
+    /**
+     * Copies a part from another object, {@code headers} name the source and its byte range.
+     */
+    public CompletableFuture<UploadPartCopyResponse> uploadPartCopy(String bucketName,
+        String objectName, String uploadId, int partNumber, Multimap<String, String> headers)
+        throws MinioException, GeneralSecurityException, IOException {
+        return uploadPartCopyAsync(bucketName, null, objectName, uploadId, partNumber, headers,
+            null);
+    }
+
+    public CompletableFuture<ObjectWriteResponse> completeMultipartUpload(String bucketName,
+        String objectName, String uploadId, Part[] parts)
+        throws MinioException, GeneralSecurityException, IOException {
+        return completeMultipartUploadAsync(bucketName, null, objectName, uploadId, parts, null,
+            null);
+    }
+
+    public CompletableFuture<AbortMultipartUploadResponse> abortMultipartUpload(
+        String bucketName, String objectName, String uploadId)
+        throws MinioException, GeneralSecurityException, IOException {
+        return abortMultipartUploadAsync(bucketName, null, objectName, uploadId, null, null);
+    }
+
+    public CompletableFuture<ListPartsResponse> listParts(String bucketName, String objectName,
+        String uploadId, Integer partNumberMarker)
+        throws MinioException, GeneralSecurityException, IOException {
+        return listPartsAsync(bucketName, null, objectName, null, partNumberMarker, uploadId, null,
+            null);
+    }
+
+    public CompletableFuture<ListObjectsV2Response> listObjectsPage(String bucketName, String prefix,
+        String delimiter, String startAfter, String continuationToken, int maxKeys)
+        throws MinioException, GeneralSecurityException, IOException {
+        return listObjectsV2Async(bucketName, null, delimiter, null, startAfter, maxKeys, prefix,
+            continuationToken, false, false, null, null);
+    }
+
+    public CompletableFuture<ListMultipartUploadsResponse> listMultipartUploads(String bucketName,
+        String prefix, String keyMarker, String uploadIdMarker, int maxUploads)
+        throws MinioException, GeneralSecurityException, IOException {
+        return listMultipartUploadsAsync(bucketName, null, null, null, keyMarker, maxUploads,
+            prefix, uploadIdMarker, null, null);
+    }
+
+    /**
+     * Removes up to 1000 objects in quiet mode, the response only lists the keys which failed.
+     */
+    public CompletableFuture<DeleteObjectsResponse> deleteObjects(String bucketName,
+        List<DeleteObject> objects) throws MinioException, GeneralSecurityException, IOException {
+        return deleteObjectsAsync(bucketName, null, objects, true, false, null, null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.demo.filestoresdk.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.minio.StatObjectResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Size bounded, TTL based cache of object stats keyed by bucket and object name. Entries are
+ * only filled from real stat calls, so cached reads see the same headers and user metadata as a
+ * stat, and must be invalidated whenever an object is written, removed or overwritten. The cache
+ * is disabled when {@code maxSize} is not positive.
+ */
+public class ObjectStatCache {
+
+    private final Cache<String, StatObjectResponse> cache;
+
+    public ObjectStatCache(long maxSize, Duration ttl) {
+        this.cache = maxSize > 0 && ttl != null && !ttl.isZero()
+            ? Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build()
+            : null;
+    }
+
+    public StatObjectResponse get(String bucketName, String objectName,
+        Supplier<StatObjectResponse> loader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        return cache.get(key(bucketName, objectName), key -> loader.get());
+    }
+
+    /**
+     * Returns the cached stat without loading it, for callers which load it asynchronously.
+     */
+    public Optional<StatObjectResponse> getIfPresent(String bucketName, String objectName) {
+        return cache == null
+            ? Optional.empty()
+            : Optional.ofNullable(cache.getIfPresent(key(bucketName, objectName)));
+    }
+
+    public void put(String bucketName, String objectName, StatObjectResponse response) {
+        if (cache != null) {
+            cache.put(key(bucketName, objectName), response);
+        }
+    }
+
+    public void invalidate(String bucketName, String objectName) {
+        if (cache != null) {
+            cache.invalidate(key(bucketName, objectName));
+        }
+    }
+
+    public void invalidate(String bucketName, List<String> objectNames) {
+        if (cache != null) {
+            cache.invalidateAll(objectNames.stream()
+                .map(objectName -> key(bucketName, objectName))
+                .toList());
+        }
+    }
+
+    public void bindTo(MeterRegistry meterRegistry, String cacheName) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName);
+        }
+    }
+
+    private static String key(String bucketName, String objectName) {
+        return bucketName + "/" + objectName;
+    }
+}
@@ -0,0 +1,191 @@
+package com.demo.filestoresdk.service;
+
+import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_LANGUAGE;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.EXPIRES;
+
+import com.demo.filestoresdk.configutation.MinioClientData;
+import com.google.common.collect.HashMultimap;
+import io.minio.ComposeSource;
+import io.minio.ObjectWriteResponse;
+import io.minio.StatObjectResponse;
+import io.minio.UploadPartCopyResponse;
+import io.minio.errors.MinioException;
+import io.minio.messages.Part;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Copies an object server side as a multipart upload whose parts are copied from byte ranges
+ * of the source with UploadPartCopy, up to {@code copyParallelism} parts at once. Unlike
+ * CopyObject this isn't limited to 5 GB, and no content passes through the service. The parts
+ * are copied only while the source keeps the ETag it had when the copy started. Like CopyObject,
+ * the content headers and user metadata are copied, tags aren't.
+ */
+@Slf4j
+public class ParallelMultipartCopier {
+
+    private static final int MAX_PARTS = 10_000;
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final long MAX_PART_SIZE = 5L * 1024 * 1024 * 1024;
+    private static final String COPY_SOURCE_RANGE = "x-amz-copy-source-range";
+    private static final String USER_METADATA_PREFIX = "x-amz-meta-";
+    // the stored content headers CopyObject keeps besides the content type
+    private static final List<String> CONTENT_HEADERS = List.of(CACHE_CONTROL,
+        CONTENT_DISPOSITION, CONTENT_ENCODING, CONTENT_LANGUAGE, EXPIRES);
+
+    private final MultipartMinioAsyncClient multipartClient;
+    private final MinioClientData minioClientData;
+
+    public ParallelMultipartCopier(MultipartMinioAsyncClient multipartClient,
+        MinioClientData minioClientData) {
+        this.multipartClient = multipartClient;
+        this.minioClientData = minioClientData;
+    }
+
+    /**
+     * Returns the size of the copied parts, the configured {@code copyPartSize} unless the
+     * object needs bigger parts to stay within 10000 parts.
+     */
+    public long getPartSize(long objectSize) {
+        var partSize = Math.max(minioClientData.getCopyPartSize(), MIN_PART_SIZE);
+        partSize = Math.max(partSize, (objectSize + MAX_PARTS - 1) / MAX_PARTS);
+        return Math.min(partSize, MAX_PART_SIZE);
+    }
+
+    public ObjectWriteResponse copy(String srcBucket, String srcObject,
+        StatObjectResponse srcStat, String dstBucket, String dstObject)
+        throws MinioException, GeneralSecurityException, IOException, InterruptedException {
+        var source = ComposeSource.builder()
+            .bucket(srcBucket)
+            .object(srcObject)
+            .build();
+        source.buildHeaders(srcStat.size(), srcStat.etag());
+
+        var multipartHeaders = HashMultimap.<String, String>create();
+        multipartHeaders.put(CONTENT_TYPE, srcStat.contentType());
+        for (var header : CONTENT_HEADERS) {
+            var value = srcStat.headers().get(header);
+            if (value != null) {
+                multipartHeaders.put(header, value);
+            }
+        }
+        srcStat.userMetadata().forEach((key, value) ->
+            multipartHeaders.put(USER_METADATA_PREFIX + key, value));
+        var uploadId = await(multipartClient.initiateMultipartUpload(dstBucket, dstObject,
+            multipartHeaders)).result().uploadId();
+
+        var parts = new ArrayList<CompletableFuture<Part>>();
+        try {
+            copyParts(source, srcStat.size(), dstBucket, dstObject, uploadId, parts);
+            var completedParts = new Part[parts.size()];
+            for (int i = 0; i < completedParts.length; i++) {
+                completedParts[i] = await(parts.get(i));
+            }
+            return await(multipartClient.completeMultipartUpload(dstBucket, dstObject,
+                uploadId, completedParts));
+        } catch (Exception ex) {
+            abort(dstBucket, dstObject, uploadId, parts);
+            throw ex;
+        }
+    }
+
+    private void copyParts(ComposeSource source, long size, String dstBucket, String dstObject,
+        String uploadId, List<CompletableFuture<Part>> parts)
+        throws MinioException, IOException, InterruptedException {
+        var partSize = getPartSize(size);
+        var inFlight = new Semaphore(Math.max(1, minioClientData.getCopyParallelism()));
+        var partNumber = 1;
+        for (long offset = 0; offset < size; offset += partSize, partNumber++) {
+            inFlight.acquire();
+            throwIfFailed(parts);
+            var headers = HashMultimap.create(source.headers());
+            headers.put(COPY_SOURCE_RANGE,
+                "bytes=" + offset + "-" + (Math.min(offset + partSize, size) - 1));
+            parts.add(copyPart(dstBucket, dstObject, uploadId, partNumber, headers, 1)
+                .whenComplete((part, ex) -> inFlight.release()));
+        }
+    }
+
+    private CompletableFuture<Part> copyPart(String bucketName, String objectName,
+        String uploadId, int partNumber, HashMultimap<String, String> headers, int attempt) {
+        CompletableFuture<UploadPartCopyResponse> response;
+        try {
+            response = multipartClient.uploadPartCopy(bucketName, objectName, uploadId,
+                partNumber, headers);
+        } catch (MinioException | GeneralSecurityException | IOException ex) {
+            response = CompletableFuture.failedFuture(ex);
+        }
+        return response
+            .thenApply(uploadPartCopyResponse -> new Part(partNumber,
+                uploadPartCopyResponse.result().etag()))
+            .exceptionallyCompose(ex -> {
+                if (attempt >= minioClientData.getRetryMaxAttempts()
+                    || !(unwrap(ex) instanceof IOException)) {
+                    return CompletableFuture.failedFuture(ex);
+                }
+                log.warn("Retrying copy of part {} of upload {}, attempt {}", partNumber,
+                    uploadId, attempt, ex);
+                var delayedExecutor = CompletableFuture.delayedExecutor(
+                    minioClientData.getRetryFixedBackOff(), TimeUnit.MILLISECONDS);
+                return CompletableFuture.runAsync(() -> {
+                    }, delayedExecutor)
+                    .thenCompose(ignored -> copyPart(bucketName, objectName, uploadId,
+                        partNumber, headers, attempt + 1));
+            });
+    }
+
+    private void abort(String bucketName, String objectName, String uploadId,
+        List<CompletableFuture<Part>> parts) {
+        try {
+            // let the parts in flight settle, otherwise they could outlive the abort
+            CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                .exceptionally(ex -> null)
+                .join();
+            await(multipartClient.abortMultipartUpload(bucketName, objectName, uploadId));
+        } catch (Exception ex) {
+            log.error("Failed to abort multipart copy {} of {}", uploadId, objectName, ex);
+        }
+    }
+
+    private static void throwIfFailed(List<CompletableFuture<Part>> parts) throws IOException {
+        for (var part : parts) {
+            if (part.isCompletedExceptionally()) {
+                try {
+                    part.join();
+                } catch (CompletionException ex) {
+                    throw new IOException("Failed to copy part", unwrap(ex));
+                }
+            }
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future)
+        throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            throw new IOException(unwrap(ex).getLocalizedMessage(), unwrap(ex));
+        }
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        var cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+            && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,325 @@
+package com.demo.filestoresdk.service;
+
+import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.INVALID_PART_NUMBER_ERROR;
+import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.PART_TOO_LARGE_ERROR;
+import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.PART_TOO_SMALL_ERROR;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+import com.demo.filestoresdk.configutation.MinioClientData;
+import com.demo.filestoresdk.model.UploadedPart;
+import com.demo.reststarter.exception.BadRequestRestException;
+import com.google.common.collect.HashMultimap;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.UploadPartResponse;
+import io.minio.errors.MinioException;
+import io.minio.messages.Part;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Uploads a stream as an S3 multipart upload with up to {@code uploadParallelism} parts in
+ * flight. The stream is cut into {@code minPartSize} parts which are read into buffers leased
+ * from the shared {@link BufferPool} within a budget of {@code uploadBufferPoolSize} parts, so
+ * memory usage doesn't depend on the object size. Failed parts
+ * are retried from their buffer, and the multipart upload is aborted if a part can't be stored.
+ */
+@Slf4j
+public class ParallelMultipartUploader {
+
+    private static final int MAX_PARTS = 10_000;
+    /**
+     * Smallest part S3 accepts for any part but the last one.
+     */
+    public static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final MultipartMinioAsyncClient multipartClient;
+    private final MinioClientData minioClientData;
+    private final int partSize;
+    private final BufferPool.Budget bufferBudget;
+
+    public ParallelMultipartUploader(MultipartMinioAsyncClient multipartClient,
+        MinioClientData minioClientData, BufferPool bufferPool) {
+        this.multipartClient = multipartClient;
+        this.minioClientData = minioClientData;
+        this.partSize = minioClientData.getMinPartSize();
+        this.bufferBudget = bufferPool.newBudget((long) partSize
+            * Math.max(minioClientData.getUploadBufferPoolSize(),
+            minioClientData.getUploadParallelism()));
+    }
+
+    public boolean isEnabled() {
+        return minioClientData.getUploadParallelism() > 1;
+    }
+
+    public int getPartSize() {
+        return partSize;
+    }
+
+    public String initiate(String bucketName, String objectName, String contentType)
+        throws MinioException, GeneralSecurityException, IOException, InterruptedException {
+        var multipartHeaders = HashMultimap.<String, String>create();
+        multipartHeaders.put(CONTENT_TYPE, contentType);
+        return await(multipartClient.initiateMultipartUpload(bucketName, objectName,
+            multipartHeaders)).result().uploadId();
+    }
+
+    /**
+     * Uploads a single part of a multipart upload initiated with
+     * {@link #initiate(String, String, String)}. The part is read into a pooled buffer, so it
+     * must not be bigger than {@link #getPartSize()}. A part which can't be the last one is
+     * rejected before it is sent if it is smaller than {@link #MIN_PART_SIZE}, S3 would only
+     * reject it when the upload is completed.
+     */
+    public UploadedPart uploadPart(String bucketName, String objectName, String uploadId,
+        int partNumber, InputStream data, boolean last)
+        throws MinioException, GeneralSecurityException, IOException, InterruptedException {
+        if (partNumber < 1 || partNumber > MAX_PARTS) {
+            throw new BadRequestRestException(INVALID_PART_NUMBER_ERROR);
+        }
+        var part = readPart(data, new Semaphore(1));
+        try {
+            if (!part.isLast() && data.read() != -1) {
+                throw new BadRequestRestException(PART_TOO_LARGE_ERROR,
+                    String.valueOf(getPartSize()));
+            }
+            if (!last && part.length() < MIN_PART_SIZE) {
+                throw new BadRequestRestException(PART_TOO_SMALL_ERROR,
+                    String.valueOf(partNumber), String.valueOf(MIN_PART_SIZE));
+            }
+            var uploadedPart = await(uploadPart(bucketName, objectName, uploadId, partNumber,
+                part, 1));
+            return UploadedPart.builder()
+                .partNumber(partNumber)
+                .etag(uploadedPart.etag())
+                .size(part.length())
+                .build();
+        } finally {
+            part.release();
+        }
+    }
+
+    public ObjectWriteResponse complete(String bucketName, String objectName, String uploadId,
+        List<UploadedPart> uploadedParts)
+        throws MinioException, GeneralSecurityException, IOException, InterruptedException {
+        var parts = uploadedParts.stream()
+            .sorted(Comparator.comparingInt(UploadedPart::getPartNumber))
+            .map(uploadedPart -> new Part(uploadedPart.getPartNumber(), uploadedPart.getEtag()))
+            .toArray(Part[]::new);
+        return await(multipartClient.completeMultipartUpload(bucketName, objectName, uploadId,
+            parts));
+    }
+
+    public void abort(String bucketName, String objectName, String uploadId)
+        throws MinioException, GeneralSecurityException, IOException, InterruptedException {
+        await(multipartClient.abortMultipartUpload(bucketName, objectName, uploadId));
+    }
+
+    public ObjectWriteResponse upload(String bucketName, String objectName, InputStream data,
+        String contentType, Map<String, String> headers)
+        throws MinioException, GeneralSecurityException, IOException, InterruptedException {
+        var inFlight = new Semaphore(minioClientData.getUploadParallelism());
+        var firstPart = readPart(data, inFlight);
+        if (firstPart.isLast()) {
+            try {
+                return putObject(bucketName, objectName, firstPart, contentType, headers);
+            } finally {
+                firstPart.release();
+            }
+        }
+
+        String uploadId;
+        try {
+            var multipartHeaders = HashMultimap.<String, String>create();
+            headers.forEach(multipartHeaders::put);
+            multipartHeaders.put(CONTENT_TYPE, contentType);
+            uploadId = await(multipartClient.initiateMultipartUpload(bucketName, objectName,
+                multipartHeaders)).result().uploadId();
+        } catch (Exception ex) {
+            firstPart.release();
+            throw ex;
+        }
+
+        var parts = new ArrayList<CompletableFuture<Part>>();
+        try {
+            uploadParts(bucketName, objectName, uploadId, data, firstPart, inFlight, parts);
+            var completedParts = new Part[parts.size()];
+            for (int i = 0; i < completedParts.length; i++) {
+                completedParts[i] = await(parts.get(i));
+            }
+            return await(multipartClient.completeMultipartUpload(bucketName, objectName,
+                uploadId, completedParts));
+        } catch (Exception ex) {
+            abort(bucketName, objectName, uploadId, parts);
+            throw ex;
+        }
+    }
+
+    private void uploadParts(String bucketName, String objectName, String uploadId,
+        InputStream data, PartBuffer firstPart, Semaphore inFlight,
+        List<CompletableFuture<Part>> parts) throws IOException, InterruptedException {
+        var part = firstPart;
+        var partNumber = 1;
+        while (true) {
+            var currentPart = part;
+            parts.add(uploadPart(bucketName, objectName, uploadId, partNumber, currentPart, 1)
+                .whenComplete((result, ex) -> currentPart.release()));
+            if (currentPart.isLast()) {
+                return;
+            }
+            throwIfFailed(parts);
+            part = readPart(data, inFlight);
+            if (part.length() == 0) {
+                part.release();
+                return;
+            }
+            partNumber++;
+        }
+    }
+
+    private CompletableFuture<Part> uploadPart(String bucketName, String objectName,
+        String uploadId, int partNumber, PartBuffer part, int attempt) {
+        CompletableFuture<UploadPartResponse> response;
+        try {
+            response = multipartClient.uploadPart(bucketName, objectName, uploadId, partNumber,
+                part.buffer(), part.length());
+        } catch (MinioException | GeneralSecurityException | IOException ex) {
+            response = CompletableFuture.failedFuture(ex);
+        }
+        return response
+            .thenApply(uploadPartResponse -> new Part(partNumber, uploadPartResponse.etag()))
+            .exceptionallyCompose(ex -> {
+                if (attempt >= minioClientData.getRetryMaxAttempts()
+                    || !(unwrap(ex) instanceof IOException)) {
+                    return CompletableFuture.failedFuture(ex);
+                }
+                log.warn("Retrying part {} of upload {}, attempt {}", partNumber, uploadId,
+                    attempt, ex);
+                var delayedExecutor = CompletableFuture.delayedExecutor(
+                    minioClientData.getRetryFixedBackOff(), TimeUnit.MILLISECONDS);
+                return CompletableFuture.runAsync(() -> {
+                    }, delayedExecutor)
+                    .thenCompose(ignored -> uploadPart(bucketName, objectName, uploadId,
+                        partNumber, part, attempt + 1));
+            });
+    }
+
+    private ObjectWriteResponse putObject(String bucketName, String objectName, PartBuffer part,
+        String contentType, Map<String, String> headers)
+        throws MinioException, GeneralSecurityException, IOException, InterruptedException {
+        var putObjectArgs = PutObjectArgs.builder().bucket(bucketName).object(objectName)
+            .stream(new ByteArrayInputStream(part.buffer(), 0, part.length()), part.length(), -1)
+            .contentType(contentType)
+            .headers(headers)
+            .build();
+        return await(multipartClient.putObject(putObjectArgs));
+    }
+
+    private PartBuffer readPart(InputStream data, Semaphore inFlight)
+        throws IOException, InterruptedException {
+        inFlight.acquire();
+        byte[] buffer;
+        try {
+            buffer = bufferBudget.acquire(partSize);
+        } catch (InterruptedException | RuntimeException ex) {
+            inFlight.release();
+            throw ex;
+        }
+        var part = new PartBuffer(buffer, inFlight);
+        try {
+            part.length = data.readNBytes(buffer, 0, partSize);
+            return part;
+        } catch (IOException ex) {
+            part.release();
+            throw ex;
+        }
+    }
+
+    private void abort(String bucketName, String objectName, String uploadId,
+        List<CompletableFuture<Part>> parts) {
+        try {
+            // let the parts in flight settle, otherwise they could outlive the abort
+            CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                .exceptionally(ex -> null)
+                .join();
+            await(multipartClient.abortMultipartUpload(bucketName, objectName, uploadId));
+        } catch (Exception ex) {
+            log.error("Failed to abort multipart upload {} of {}", uploadId, objectName, ex);
+        }
+    }
+
+    private static void throwIfFailed(List<CompletableFuture<Part>> parts) throws IOException {
+        for (var part : parts) {
+            if (part.isCompletedExceptionally()) {
+                try {
+                    part.join();
+                } catch (CompletionException ex) {
+                    throw new IOException("Failed to upload part", unwrap(ex));
+                }
+            }
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future)
+        throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            throw new IOException(unwrap(ex).getLocalizedMessage(), unwrap(ex));
+        }
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        var cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+            && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private class PartBuffer {
+
+        private final byte[] buffer;
+        private final Semaphore inFlight;
+        private int length;
+        private boolean released;
+
+        PartBuffer(byte[] buffer, Semaphore inFlight) {
+            this.buffer = buffer;
+            this.inFlight = inFlight;
+        }
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        int length() {
+            return length;
+        }
+
+        boolean isLast() {
+            return length < partSize;
+        }
+
+        synchronized void release() {
+            if (!released) {
+                released = true;
+                bufferBudget.release(buffer);
+                inFlight.release();
+            }
+        }
+    }
+}
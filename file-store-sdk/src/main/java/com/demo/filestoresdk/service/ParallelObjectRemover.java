@@ -0,0 +1,131 @@
+package com.demo.filestoresdk.service;
+
+import com.demo.filestoresdk.configutation.MinioClientData;
+import com.google.common.collect.Lists;
+import io.minio.DeleteObjectsResponse;
+import io.minio.errors.MinioException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Removes objects with multi-object delete requests of at most 1000 keys, the S3 limit, of which
+ * up to {@code deleteParallelism} are in flight. Requests failing with an I/O error and keys the
+ * storage reports as failed are retried up to {@code retryMaxAttempts} times.
+ */
+@Slf4j
+public class ParallelObjectRemover {
+
+    public static final int MAX_DELETE_KEYS = 1000;
+
+    private final MultipartMinioAsyncClient multipartClient;
+    private final MinioClientData minioClientData;
+
+    public ParallelObjectRemover(MultipartMinioAsyncClient multipartClient,
+        MinioClientData minioClientData) {
+        this.multipartClient = multipartClient;
+        this.minioClientData = minioClientData;
+    }
+
+    /**
+     * @return the names of the objects which couldn't be removed
+     */
+    public List<String> remove(String bucketName, List<String> objectNames)
+        throws InterruptedException {
+        if (objectNames.isEmpty()) {
+            return List.of();
+        }
+        Queue<List<String>> batches = new ConcurrentLinkedQueue<>(
+            Lists.partition(objectNames, MAX_DELETE_KEYS));
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        var workers = new ArrayList<CompletableFuture<Void>>();
+        for (var i = 0; i < Math.min(Math.max(1, minioClientData.getDeleteParallelism()),
+            batches.size()); i++) {
+            workers.add(drain(bucketName, batches, failed));
+        }
+        try {
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).get();
+        } catch (ExecutionException ex) {
+            // not expected, every batch reports its failures as failed keys
+            throw new IllegalStateException(ex.getCause());
+        }
+        return failed;
+    }
+
+    /**
+     * Sends the queued batches one after another, so every worker has one request in flight.
+     */
+    private CompletableFuture<Void> drain(String bucketName, Queue<List<String>> batches,
+        List<String> failed) {
+        var batch = batches.poll();
+        if (batch == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return removeBatch(bucketName, batch, 1)
+            .exceptionally(ex -> {
+                log.error("Failed to remove {} objects", batch.size(), unwrap(ex));
+                return batch;
+            })
+            .thenCompose(batchFailed -> {
+                failed.addAll(batchFailed);
+                return drain(bucketName, batches, failed);
+            });
+    }
+
+    private CompletableFuture<List<String>> removeBatch(String bucketName, List<String> batch,
+        int attempt) {
+        CompletableFuture<DeleteObjectsResponse> response;
+        try {
+            response = multipartClient.deleteObjects(bucketName, batch.stream()
+                .map(DeleteObject::new)
+                .toList());
+        } catch (MinioException | GeneralSecurityException | IOException ex) {
+            response = CompletableFuture.failedFuture(ex);
+        }
+        return response
+            .thenApply(deleteObjectsResponse -> {
+                var errors = deleteObjectsResponse.result().errorList();
+                errors.forEach(error -> log.warn("Failed to remove object '{}', attempt {}: {}",
+                    error.objectName(), attempt, error.message()));
+                return errors.stream().map(DeleteError::objectName).toList();
+            })
+            .exceptionallyCompose(ex -> {
+                if (!(unwrap(ex) instanceof IOException)) {
+                    return CompletableFuture.failedFuture(ex);
+                }
+                log.warn("Failed to remove {} objects, attempt {}", batch.size(), attempt, ex);
+                return CompletableFuture.completedFuture(batch);
+            })
+            .thenCompose(batchFailed -> {
+                if (batchFailed.isEmpty()
+                    || attempt >= minioClientData.getRetryMaxAttempts()) {
+                    return CompletableFuture.completedFuture(batchFailed);
+                }
+                var delayedExecutor = CompletableFuture.delayedExecutor(
+                    minioClientData.getRetryFixedBackOff(), TimeUnit.MILLISECONDS);
+                return CompletableFuture.runAsync(() -> {
+                    }, delayedExecutor)
+                    .thenCompose(ignored -> removeBatch(bucketName, batchFailed, attempt + 1));
+            });
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        var cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+            && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,215 @@
+package com.demo.filestoresdk.service;
+
+import io.minio.GetObjectArgs;
+import io.minio.MinioAsyncClient;
+import io.minio.errors.MinioException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Reads an object as consecutive byte ranges which are fetched concurrently. At most
+ * {@code parallelism} ranges are requested or buffered ahead of the range being read and they
+ * are handed out strictly in order, so the memory used by the stream is bounded by
+ * {@code (parallelism + 1) * rangeSize}. Ranges are read into buffers leased from the
+ * {@link BufferPool} and returned once consumed. The stream only waits for the pool while it
+ * holds no buffer, otherwise it requests fewer ranges ahead, so streams holding part of an
+ * exhausted pool can't wait on each other. Every range is requested with the ETag of the
+ * object, so a concurrent overwrite fails the read instead of mixing two versions.
+ */
+public class RangedObjectInputStream extends InputStream {
+
+    private final MinioAsyncClient minioAsyncClient;
+    private final BufferPool bufferPool;
+    private final String bucketName;
+    private final String objectName;
+    private final String etag;
+    private final long objectSize;
+    private final int rangeSize;
+    private final int parallelism;
+    private final Deque<CompletableFuture<Range>> window = new ArrayDeque<>();
+
+    private long nextOffset;
+    private Range current;
+    private int position;
+    private boolean closed;
+
+    public RangedObjectInputStream(MinioAsyncClient minioAsyncClient, BufferPool bufferPool,
+        String bucketName, String objectName, String etag, long objectSize, int rangeSize,
+        int parallelism) {
+        this.minioAsyncClient = minioAsyncClient;
+        this.bufferPool = bufferPool;
+        this.bucketName = bucketName;
+        this.objectName = objectName;
+        this.etag = etag;
+        this.objectSize = objectSize;
+        this.rangeSize = rangeSize;
+        this.parallelism = parallelism;
+        try {
+            fillWindow();
+        } catch (InterruptedIOException ex) {
+            // the remaining ranges are requested on the first read
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureCurrent()) {
+            return -1;
+        }
+        return current.buffer()[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureCurrent()) {
+            return -1;
+        }
+        var count = Math.min(len, current.length() - position);
+        System.arraycopy(current.buffer(), position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.length() - position;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // ranges in flight still write into their buffers, they are returned once they settle
+        window.forEach(range -> range.thenAccept(this::release));
+        window.clear();
+        release(current);
+        current = null;
+    }
+
+    private boolean ensureCurrent() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (current == null || position == current.length()) {
+            release(current);
+            current = null;
+            if (window.isEmpty()) {
+                if (nextOffset >= objectSize) {
+                    return false;
+                }
+                fillWindow();
+            }
+            current = await(window.poll());
+            position = 0;
+            fillWindow();
+        }
+        return true;
+    }
+
+    private void fillWindow() throws InterruptedIOException {
+        while (window.size() < parallelism && nextOffset < objectSize) {
+            var length = (int) Math.min(rangeSize, objectSize - nextOffset);
+            var buffer = acquire(length);
+            if (buffer == null) {
+                return;
+            }
+            window.add(fetchRange(nextOffset, length, buffer));
+            nextOffset += length;
+        }
+    }
+
+    /**
+     * Waits for a buffer only while the stream holds none, waiting while holding buffers could
+     * deadlock with other streams doing the same once the pool is exhausted.
+     *
+     * @return the buffer or {@code null} if the pool is exhausted and the stream holds buffers
+     */
+    private byte[] acquire(int length) throws InterruptedIOException {
+        if (current != null || !window.isEmpty()) {
+            return bufferPool.tryAcquire(length);
+        }
+        try {
+            return bufferPool.acquire(length);
+        } catch (InterruptedException ex) {
+            throw new InterruptedIOException("Interrupted while waiting for a buffer");
+        }
+    }
+
+    private CompletableFuture<Range> fetchRange(long offset, int length, byte[] buffer) {
+        var getObjectArgs = GetObjectArgs.builder()
+            .bucket(bucketName)
+            .object(objectName)
+            .offset(offset)
+            .length((long) length)
+            .matchETag(etag)
+            .build();
+        CompletableFuture<Range> range;
+        try {
+            range = minioAsyncClient.getObject(getObjectArgs)
+                .thenApply(response -> {
+                    try (response) {
+                        var count = response.readNBytes(buffer, 0, length);
+                        if (count < length) {
+                            // serving a truncated range would shift every following byte
+                            throw new EOFException("Range at offset " + offset + " of "
+                                + objectName + " ended after " + count + " of " + length
+                                + " bytes");
+                        }
+                        return new Range(buffer, count);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+        } catch (MinioException | GeneralSecurityException | IOException ex) {
+            range = CompletableFuture.failedFuture(ex);
+        }
+        return range.whenComplete((result, ex) -> {
+            if (ex != null) {
+                bufferPool.release(buffer);
+            }
+        });
+    }
+
+    private void release(Range range) {
+        if (range != null) {
+            bufferPool.release(range.buffer());
+        }
+    }
+
+    private static Range await(CompletableFuture<Range> range) throws IOException {
+        try {
+            return range.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading object range", ex);
+        } catch (ExecutionException ex) {
+            var cause = ex.getCause();
+            while ((cause instanceof CompletionException || cause instanceof UncheckedIOException)
+                && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            throw cause instanceof IOException ioException
+                ? ioException
+                : new IOException(cause.getLocalizedMessage(), cause);
+        }
+    }
+
+    private record Range(byte[] buffer, int length) {
+
+    }
+}
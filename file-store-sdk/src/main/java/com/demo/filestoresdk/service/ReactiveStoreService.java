@@ -0,0 +1,319 @@
+package com.demo.filestoresdk.service;
+
+import static com.demo.filestoresdk.utils.FileStoreConstants.AWSCodes.NO_SUCH_KEY;
+import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.GET_DATA_ERROR;
+import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.GET_METADATA_ERROR;
+import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.SAVE_ERROR_CODE;
+import static com.demo.filestoresdk.utils.FileTools.PATH_DELIMITER;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+import com.demo.filestoresdk.configutation.MinioClientData;
+import com.demo.filestoresdk.model.FileStoreDto;
+import com.demo.filestoresdk.model.UploadedPart;
+import com.demo.reststarter.exception.InternalErrorException;
+import com.demo.reststarter.exception.NotFoundException;
+import com.demo.reststarter.exception.RestException;
+import com.google.common.collect.HashMultimap;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.Part;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking counterpart of {@link MinioStoreService}. Object content is streamed as
+ * {@code Flux<DataBuffer>} through presigned URLs with a reactive {@link WebClient}, so no thread
+ * waits on the storage and content is only read as fast as the consumer requests it. Uploads are
+ * cut into {@code minPartSize} parts with at most {@code uploadParallelism} parts in flight, which
+ * bounds the memory of an upload regardless of the object size. Stats and the multipart upload
+ * control requests go through the asynchronous MinIO client.
+ */
+@Slf4j
+public class ReactiveStoreService {
+
+    private static final String UPLOAD_ID = "uploadId";
+    private static final String PART_NUMBER = "partNumber";
+    private static final String VERSION_ID_HEADER = "x-amz-version-id";
+
+    private final MinioClient minioClient;
+    private final MultipartMinioAsyncClient multipartMinioAsyncClient;
+    private final MinioClientData minioClientData;
+    private final ObjectStatCache objectStatCache;
+    private final WebClient webClient;
+
+    public ReactiveStoreService(MinioClient minioClient,
+        MultipartMinioAsyncClient multipartMinioAsyncClient, MinioClientData minioClientData,
+        ObjectStatCache objectStatCache, WebClient webClient) {
+        this.minioClient = minioClient;
+        this.multipartMinioAsyncClient = multipartMinioAsyncClient;
+        this.minioClientData = minioClientData;
+        this.objectStatCache = objectStatCache;
+        this.webClient = webClient;
+    }
+
+    public String getBucketName() {
+        return minioClientData.getBucketName();
+    }
+
+    public Mono<StatObjectResponse> getFileStat(String bucketName, String filePath) {
+        var objectName = getRelativeFilePath(filePath);
+        return Mono.justOrEmpty(objectStatCache.getIfPresent(bucketName, objectName))
+            .switchIfEmpty(Mono.defer(() -> call(() -> multipartMinioAsyncClient.statObject(
+                    StatObjectArgs.builder().bucket(bucketName).object(objectName).build())))
+                .doOnNext(stat -> objectStatCache.put(bucketName, objectName, stat)))
+            .onErrorMap(ex -> toRestException(ex, GET_METADATA_ERROR));
+    }
+
+    public Flux<DataBuffer> getFileFromStorage(String bucketName, String filePath) {
+        return getFileRangeFromStorage(bucketName, filePath, 0, -1, null);
+    }
+
+    /**
+     * Streams the byte range [offset, offset + length) of the object, or everything from
+     * {@code offset} when the length is negative. With an {@code etag} the read fails instead of
+     * returning another version if the object was overwritten meanwhile.
+     */
+    public Flux<DataBuffer> getFileRangeFromStorage(String bucketName, String filePath,
+        long offset, long length, String etag) {
+        return presign(Method.GET, bucketName, getRelativeFilePath(filePath), Map.of())
+            .flatMapMany(uri -> webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (offset > 0 || length >= 0) {
+                        headers.set(HttpHeaders.RANGE, "bytes=" + offset + "-"
+                            + (length >= 0 ? String.valueOf(offset + length - 1) : ""));
+                    }
+                    if (StringUtils.isNotBlank(etag)) {
+                        headers.setIfMatch("\"" + StringUtils.strip(etag, "\"") + "\"");
+                    }
+                })
+                .retrieve()
+                .bodyToFlux(DataBuffer.class))
+            .onErrorMap(ex -> toRestException(ex, GET_DATA_ERROR));
+    }
+
+    /**
+     * Stores the content as it arrives. Content which turns out to be smaller than a part is
+     * stored with a single request, anything bigger as a multipart upload which is aborted if the
+     * content fails or the subscription is cancelled.
+     */
+    public Mono<FileStoreDto> putObjectToStorage(String bucketName, Flux<DataBuffer> content,
+        String filePath, String contentType) {
+        var objectName = getRelativeFilePath(filePath);
+        var objectContentType = StringUtils.defaultIfBlank(contentType,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        var partSize = minioClientData.getMinPartSize();
+        return splitIntoParts(content, partSize)
+            .switchOnFirst((first, parts) -> {
+                if (!first.hasValue() || first.get().readableByteCount() < partSize) {
+                    // only the last part can be short, so this is all the content
+                    return putObject(bucketName, objectName, parts, objectContentType);
+                }
+                return putMultipartObject(bucketName, objectName, parts, objectContentType);
+            })
+            .single()
+            .map(fileStoreDto -> {
+                fileStoreDto.setDownloadUri(PATH_DELIMITER + filePath);
+                fileStoreDto.setContentType(objectContentType);
+                return fileStoreDto;
+            })
+            .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+            .onErrorMap(ex -> toRestException(ex, SAVE_ERROR_CODE));
+    }
+
+    /**
+     * Joins the incoming buffers into parts of at least {@code partSize} bytes, only the last
+     * part can be smaller. Buffers are requested as parts are requested, so at most one part is
+     * being collected at a time.
+     */
+    private static Flux<DataBuffer> splitIntoParts(Flux<DataBuffer> content, int partSize) {
+        return Flux.defer(() -> {
+            var collected = new AtomicLong();
+            return content
+                .bufferUntil(buffer -> {
+                    if (collected.addAndGet(buffer.readableByteCount()) < partSize) {
+                        return false;
+                    }
+                    collected.set(0);
+                    return true;
+                })
+                .map(buffers -> buffers.get(0).factory().join(buffers));
+        });
+    }
+
+    private Mono<FileStoreDto> putObject(String bucketName, String objectName,
+        Flux<DataBuffer> parts, String contentType) {
+        // there is at most one part, smaller than the part size
+        return parts.collectList()
+            .flatMap(buffers -> {
+                var size = buffers.stream().mapToLong(DataBuffer::readableByteCount).sum();
+                return presign(Method.PUT, bucketName, objectName, Map.of())
+                    .flatMap(uri -> webClient.put()
+                        .uri(uri)
+                        .contentType(MediaType.parseMediaType(contentType))
+                        .contentLength(size)
+                        .body(BodyInserters.fromDataBuffers(Flux.fromIterable(buffers)))
+                        .retrieve()
+                        .toBodilessEntity())
+                    .map(response -> {
+                        objectStatCache.invalidate(bucketName, objectName);
+                        var fileStoreDto = new FileStoreDto();
+                        fileStoreDto.setFileSize(size);
+                        fileStoreDto.setEtag(
+                            StringUtils.strip(response.getHeaders().getETag(), "\""));
+                        fileStoreDto.setVersionId(
+                            response.getHeaders().getFirst(VERSION_ID_HEADER));
+                        return fileStoreDto;
+                    })
+                    .doFinally(signal -> {
+                        if (signal != SignalType.ON_COMPLETE) {
+                            buffers.forEach(DataBufferUtils::release);
+                        }
+                    });
+            });
+    }
+
+    private Mono<FileStoreDto> putMultipartObject(String bucketName, String objectName,
+        Flux<DataBuffer> parts, String contentType) {
+        var headers = HashMultimap.<String, String>create();
+        headers.put(CONTENT_TYPE, contentType);
+        var parallelism = Math.max(1, minioClientData.getUploadParallelism());
+        return call(() -> multipartMinioAsyncClient.initiateMultipartUpload(bucketName,
+            objectName, headers))
+            .map(response -> response.result().uploadId())
+            .flatMap(uploadId -> parts.index()
+                // a part is requested only when there is room for it to be uploaded
+                .flatMapSequential(part -> uploadPart(bucketName, objectName, uploadId,
+                    part.getT1().intValue() + 1, part.getT2()), parallelism, 1)
+                .collectList()
+                .flatMap(uploadedParts -> complete(bucketName, objectName, uploadId,
+                    uploadedParts))
+                .onErrorResume(ex -> abort(bucketName, objectName, uploadId)
+                    .then(Mono.error(ex)))
+                .doOnCancel(() -> abort(bucketName, objectName, uploadId).subscribe()));
+    }
+
+    private Mono<UploadedPart> uploadPart(String bucketName, String objectName, String uploadId,
+        int partNumber, DataBuffer part) {
+        var size = part.readableByteCount();
+        return presign(Method.PUT, bucketName, objectName,
+            Map.of(UPLOAD_ID, uploadId, PART_NUMBER, String.valueOf(partNumber)))
+            .flatMap(uri -> webClient.put()
+                .uri(uri)
+                .contentLength(size)
+                .body(BodyInserters.fromDataBuffers(Mono.just(part)))
+                .retrieve()
+                .toBodilessEntity())
+            .map(response -> UploadedPart.builder()
+                .partNumber(partNumber)
+                .etag(StringUtils.strip(response.getHeaders().getETag(), "\""))
+                .size(size)
+                .build())
+            .doFinally(signal -> {
+                // a written part is released by the client, anything else is released here
+                if (signal != SignalType.ON_COMPLETE) {
+                    DataBufferUtils.release(part);
+                }
+            });
+    }
+
+    private Mono<FileStoreDto> complete(String bucketName, String objectName, String uploadId,
+        List<UploadedPart> uploadedParts) {
+        var parts = uploadedParts.stream()
+            .map(uploadedPart -> new Part(uploadedPart.getPartNumber(), uploadedPart.getEtag()))
+            .toArray(Part[]::new);
+        var size = uploadedParts.stream().mapToLong(UploadedPart::getSize).sum();
+        return call(() -> multipartMinioAsyncClient.completeMultipartUpload(bucketName,
+            objectName, uploadId, parts))
+            .map(response -> {
+                objectStatCache.invalidate(bucketName, objectName);
+                var fileStoreDto = new FileStoreDto();
+                fileStoreDto.setFileSize(size);
+                fileStoreDto.setEtag(response.etag());
+                fileStoreDto.setVersionId(response.versionId());
+                return fileStoreDto;
+            });
+    }
+
+    private Mono<Void> abort(String bucketName, String objectName, String uploadId) {
+        return call(() -> multipartMinioAsyncClient.abortMultipartUpload(bucketName, objectName,
+            uploadId))
+            .then()
+            .onErrorResume(ex -> {
+                log.warn("Failed to abort multipart upload {} of {}", uploadId, objectName, ex);
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Creates a presigned URL. Signing is done locally when the region is configured, otherwise
+     * the first call looks the region up, which is why it runs off the event loop.
+     */
+    private Mono<URI> presign(Method method, String bucketName, String objectName,
+        Map<String, String> queryParams) {
+        return Mono.fromCallable(() -> URI.create(minioClient.getPresignedObjectUrl(
+                GetPresignedObjectUrlArgs.builder()
+                    .method(method)
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .expiry(minioClientData.getExpiryTime())
+                    .extraQueryParams(queryParams)
+                    .build())))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static <T> Mono<T> call(AsyncCall<T> asyncCall) {
+        return Mono.defer(() -> {
+            try {
+                return Mono.fromFuture(asyncCall.execute());
+            } catch (Exception ex) {
+                return Mono.error(ex);
+            }
+        });
+    }
+
+    private static Throwable toRestException(Throwable ex, String errorCode) {
+        if (ex instanceof RestException) {
+            return ex;
+        }
+        if (ex instanceof ErrorResponseException errorResponseException
+            && NO_SUCH_KEY.equals(errorResponseException.errorResponse().code())
+            || ex instanceof WebClientResponseException.NotFound) {
+            return new NotFoundException(ex.getLocalizedMessage(), ex);
+        }
+        log.error(ex.getLocalizedMessage(), ex);
+        return new InternalErrorException(errorCode, ex);
+    }
+
+    private static String getRelativeFilePath(String filePath) {
+        return filePath != null && filePath.startsWith("/")
+            ? filePath.replaceFirst("/", "")
+            : filePath;
+    }
+
+    @FunctionalInterface
+    private interface AsyncCall<T> {
+
+        CompletableFuture<T> execute() throws Exception;
+    }
+}
@@ -0,0 +1,186 @@
+package com.demo.filestoresdk.service;
+
+import static com.demo.filestoresdk.utils.FileStoreConstants.ErrorCodes.GET_FILES_NAME_FROM_BUCKET;
+
+import com.demo.filestoresdk.model.ObjectListingPage;
+import com.demo.filestoresdk.model.ObjectSummary;
+import com.demo.reststarter.exception.InternalErrorException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Lists the keys under a prefix as key range shards of which up to {@code parallelism} are
+ * listed concurrently. The ranges are split at the base prefix followed by one hex digit ("0"
+ * .."f") or two ("00".."ff") for a fan-out above 16, which spreads hex named keyspaces evenly.
+ * Each shard is listed with StartAfter its lower bound and stops after its upper bound, the
+ * first and the last shard are open ended, so every key is listed whatever its characters.
+ * Every active shard has at most one page in flight or buffered, the next page is requested as
+ * soon as the previous one is taken, so memory is bounded by {@code parallelism} pages. Shards
+ * are disjoint and ordered, so a sorted listing simply drains them one after another while the
+ * following shards are prefetched, and an unsorted one takes whichever page arrives first.
+ */
+public class ShardedObjectIterator implements Iterator<ObjectSummary> {
+
+    private static final String HEX_DIGITS = "0123456789abcdef";
+
+    private final PageLoader pageLoader;
+    private final boolean sorted;
+    private final Deque<Shard> pendingShards;
+    private final List<Shard> activeShards = new ArrayList<>();
+    private final int parallelism;
+    private Iterator<ObjectSummary> current = Collections.emptyIterator();
+
+    public ShardedObjectIterator(String prefix, int fanOut, int parallelism, boolean sorted,
+        PageLoader pageLoader) {
+        this.pageLoader = pageLoader;
+        this.sorted = sorted;
+        this.parallelism = Math.max(1, parallelism);
+        this.pendingShards = new ArrayDeque<>();
+        String lowerBound = null;
+        for (var boundary : shardBoundaries(prefix, fanOut)) {
+            pendingShards.add(new Shard(lowerBound, boundary));
+            lowerBound = boundary;
+        }
+        pendingShards.add(new Shard(lowerBound, null));
+        startShards();
+    }
+
+    /**
+     * Returns the keys the shards are split at in ascending order, the base prefix followed by
+     * one hex digit for a fan-out up to 16 and two above that.
+     */
+    public static List<String> shardBoundaries(String prefix, int fanOut) {
+        var base = prefix == null ? "" : prefix;
+        var boundaries = new ArrayList<String>();
+        for (var first : HEX_DIGITS.toCharArray()) {
+            if (fanOut <= HEX_DIGITS.length()) {
+                boundaries.add(base + first);
+                continue;
+            }
+            for (var second : HEX_DIGITS.toCharArray()) {
+                boundaries.add(base + first + second);
+            }
+        }
+        return boundaries;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (activeShards.isEmpty()) {
+                return false;
+            }
+            current = nextPage().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public ObjectSummary next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Drops the pages which are still in flight, for consumers which stop early.
+     */
+    public void close() {
+        activeShards.forEach(shard -> shard.page.cancel(false));
+        activeShards.clear();
+        pendingShards.clear();
+    }
+
+    private List<ObjectSummary> nextPage() {
+        var shard = sorted ? activeShards.get(0) : awaitAny();
+        var page = await(shard.page);
+        var objects = page.getObjects();
+        var inRange = objects.stream()
+            .takeWhile(object -> shard.contains(object.getObjectName()))
+            .toList();
+        if (inRange.size() == objects.size() && page.getNextContinuationToken() != null) {
+            shard.page = pageLoader.load(shard.startAfter, page.getNextContinuationToken());
+        } else {
+            // the keys beyond the upper bound belong to the following shards
+            activeShards.remove(shard);
+            startShards();
+        }
+        return inRange;
+    }
+
+    private Shard awaitAny() {
+        var pages = activeShards.stream()
+            .map(shard -> shard.page)
+            .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.anyOf(pages).join();
+        } catch (CompletionException ex) {
+            // the failed shard is picked below and reports the failure
+        }
+        return activeShards.stream()
+            .filter(shard -> shard.page.isDone())
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private void startShards() {
+        while (activeShards.size() < parallelism && !pendingShards.isEmpty()) {
+            var shard = pendingShards.poll();
+            shard.page = pageLoader.load(shard.startAfter, null);
+            activeShards.add(shard);
+        }
+    }
+
+    private static ObjectListingPage await(CompletableFuture<ObjectListingPage> page) {
+        try {
+            return page.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InternalErrorException(GET_FILES_NAME_FROM_BUCKET, ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new InternalErrorException(GET_FILES_NAME_FROM_BUCKET, ex.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    public interface PageLoader {
+
+        /**
+         * Loads a page of the keys after {@code startAfter}, or from the first key if it's
+         * {@code null}.
+         */
+        CompletableFuture<ObjectListingPage> load(String startAfter, String continuationToken);
+    }
+
+    /**
+     * The keys after {@code startAfter} up to and including {@code lastKey}, a {@code null}
+     * bound is open.
+     */
+    private static final class Shard {
+
+        private final String startAfter;
+        private final String lastKey;
+        private CompletableFuture<ObjectListingPage> page;
+
+        Shard(String startAfter, String lastKey) {
+            this.startAfter = startAfter;
+            this.lastKey = lastKey;
+        }
+
+        boolean contains(String key) {
+            return lastKey == null || key.compareTo(lastKey) <= 0;
+        }
+    }
+}
@@ -46,5 +46,9 @@ public class FileStoreConstants {
     public static final String GET_FILES_NAME_FROM_BUCKET = "binary.data.get.files.name.error";
     public static final String SAVE_TAGS_ERROR = "binary.data.save.file.tags.error";
     public static final String GET_TAGS_ERROR = "binary.data.get.file.tags.error";
+    public static final String PART_TOO_LARGE_ERROR = "binary.data.part.too.large";
+    public static final String INVALID_PART_NUMBER_ERROR = "binary.data.part.number.invalid";
+    public static final String PART_TOO_SMALL_ERROR = "binary.data.part.too.small";
+    public static final String INVALID_COPY_DESTINATION_ERROR = "binary.data.copy.destination.invalid";
   }
 }